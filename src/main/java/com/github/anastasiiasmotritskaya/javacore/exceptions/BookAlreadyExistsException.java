@@ -1,17 +1,38 @@
 package com.github.anastasiiasmotritskaya.javacore.exceptions;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Исключение, выбрасываемое при попытке добавить книгу с уже существующим ISBN.
+ * При пакетном добавлении содержит все ISBN, которые уже есть в библиотеке или повторяются в пакете.
  *
  * @author Анастасия Смотрицкая
  * @version 1.0
  */
 public class BookAlreadyExistsException extends LibraryException {
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_ISBNS_IN_MESSAGE = 10;
+
+    private final String[] isbns;
+
     /**
      * @param isbn уже существующий ISBN
      */
     public BookAlreadyExistsException(String isbn) {
         super(String.format("Book with ISBN '%s' already exists.", isbn));
+        this.isbns = new String[]{isbn};
+    }
+
+    /**
+     * @param isbns все конфликтующие ISBN (не может быть пустым), в сообщение попадают первые 10
+     */
+    public BookAlreadyExistsException(List<String> isbns) {
+        super(String.format("%d books already exist or are repeated. ISBNs: %s%s", isbns.size(),
+                String.join(", ", isbns.subList(0, Math.min(isbns.size(), MAX_ISBNS_IN_MESSAGE))),
+                isbns.size() > MAX_ISBNS_IN_MESSAGE ? ", ..." : "."));
+        this.isbns = isbns.toArray(new String[0]);
     }
 
     /**
@@ -20,5 +41,13 @@ public class BookAlreadyExistsException extends LibraryException {
      */
     public BookAlreadyExistsException (String message, Throwable cause) {
         super(message, cause);
+        this.isbns = new String[0];
+    }
+
+    /**
+     * @return List - ISBN, из-за которых книги не были добавлены
+     */
+    public List<String> getIsbns() {
+        return Collections.unmodifiableList(Arrays.asList(isbns));
     }
 }
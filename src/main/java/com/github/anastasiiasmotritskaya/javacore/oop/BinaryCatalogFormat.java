@@ -0,0 +1,464 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Двоичный формат каталога библиотеки. Читается и записывается через ByteBuffer и FileChannel.
+ * <p>
+ * Структура файла: сигнатура {@code JCLB}, байт версии формата, количество книг (varint),
+ * затем книги подряд. Каждая книга: ключ в каталоге, байт типа (Book, FictionBook, TechnicalBook),
+ * название, автор, год (zigzag varint), ISBN, статус (1 байт), имя читателя, инвентарный номер
+ * и поля подтипа: жанр или предмет и уровень сложности (1 байт).
+ * Файлы версии 1 не содержат инвентарный номер, при чтении он создаётся заново при первом обращении.
+ * Строки хранятся как длина + 1 (varint) и байты UTF-8, длина 0 означает null.
+ * Перечисления хранятся как порядковый номер + 1, 0 означает null.
+ * <p>
+ * Индексированный вариант формата (сигнатура {@code JCLI}) используется для {@link MappedCatalog}:
+ * заголовок фиксированной длины (сигнатура, версия, количество книг и позиция таблицы смещений),
+ * затем книги, отсортированные по байтам ключа в UTF-8, и таблица смещений книг (по 4 байта).
+ * Такой файл можно отобразить в память и искать книгу двоичным поиском, не читая остальные книги.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+final class BinaryCatalogFormat {
+    private static final byte[] MAGIC = {'J', 'C', 'L', 'B'};
+    private static final byte[] INDEXED_MAGIC = {'J', 'C', 'L', 'I'};
+    private static final int INDEXED_HEADER_SIZE = INDEXED_MAGIC.length + 1 + Integer.BYTES + Long.BYTES;
+    private static final byte VERSION = 2;
+    private static final byte VERSION_WITHOUT_INVENTORY_NUMBER = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte TYPE_BOOK = 0;
+    private static final byte TYPE_FICTION = 1;
+    private static final byte TYPE_TECHNICAL = 2;
+
+    private static final BookStatus[] STATUSES = BookStatus.values();
+    private static final DifficultyLevel[] DIFFICULTY_LEVELS = DifficultyLevel.values();
+
+    private BinaryCatalogFormat() {
+    }
+
+    /**
+     * Записывает каталог в файл, заменяя его содержимое.
+     *
+     * @param books каталог (ключ - ISBN)
+     * @param path  путь к файлу
+     * @throws IOException если файл не удалось записать
+     */
+    static void write(Map<String, Book> books, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.bytes(MAGIC);
+            out.put(VERSION);
+            out.varint(books.size());
+            for (Map.Entry<String, Book> entry : books.entrySet()) {
+                writeBook(out, entry.getKey(), entry.getValue());
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Читает каталог из файла.
+     *
+     * @param path             путь к файлу
+     * @param progressCallback получает количество уже прочитанных книг после каждой книги (может быть null)
+     * @return Map - прочитанный каталог (ключ - ISBN)
+     * @throws IOException если файл не удалось прочитать, он оборван или имеет другой формат
+     */
+    static Map<String, Book> read(Path path, LongConsumer progressCallback) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Input in = new Input(channel);
+            for (byte b : MAGIC) {
+                if (in.get() != b) {
+                    throw new IOException("Not a binary library catalogue.");
+                }
+            }
+            byte version = checkedVersion(in.get());
+
+            int count = in.varint();
+            Map<String, Book> books = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+            for (long i = 1; i <= count; i++) {
+                String key = in.string();
+                books.put(key, readBook(in, version));
+                if (progressCallback != null) {
+                    progressCallback.accept(i);
+                }
+            }
+            return books;
+        }
+    }
+
+    /**
+     * Записывает каталог в индексированном формате, заменяя содержимое файла.
+     *
+     * @param books каталог (ключ - ISBN)
+     * @param path  путь к файлу
+     * @throws IOException если файл не удалось записать или он получается больше 2 ГБ
+     */
+    static void writeIndexed(Map<String, Book> books, Path path) throws IOException {
+        List<Map.Entry<byte[], Book>> entries = new ArrayList<>(books.size());
+        for (Map.Entry<String, Book> entry : books.entrySet()) {
+            entries.add(Map.entry(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue()));
+        }
+        entries.sort((first, second) -> Arrays.compareUnsigned(first.getKey(), second.getKey()));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.bytes(new byte[INDEXED_HEADER_SIZE]);
+
+            int[] offsets = new int[entries.size()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = checkedOffset(out.position());
+                out.utf8(entries.get(i).getKey());
+                writeBookBody(out, entries.get(i).getValue());
+            }
+
+            long tableOffset = out.position();
+            checkedOffset(tableOffset + (long) offsets.length * Integer.BYTES);
+            for (int offset : offsets) {
+                out.fixedInt(offset);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(INDEXED_HEADER_SIZE)
+                    .put(INDEXED_MAGIC).put(VERSION).putInt(offsets.length).putLong(tableOffset)
+                    .flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        }
+    }
+
+    /**
+     * Проверяет заголовок индексированного файла, отображённого в память.
+     *
+     * @param mapped содержимое файла
+     * @return IntBuffer - таблица смещений книг, по одному на книгу, в порядке ключей
+     * @throws IOException если файл имеет другой формат или другую версию формата
+     */
+    static IntBuffer indexedOffsets(ByteBuffer mapped) throws IOException {
+        if (mapped.capacity() < INDEXED_HEADER_SIZE) {
+            throw new EOFException("Unexpected end of binary catalogue.");
+        }
+        for (int i = 0; i < INDEXED_MAGIC.length; i++) {
+            if (mapped.get(i) != INDEXED_MAGIC[i]) {
+                throw new IOException("Not an indexed library catalogue.");
+            }
+        }
+        checkedVersion(mapped.get(INDEXED_MAGIC.length));
+        int count = mapped.getInt(INDEXED_MAGIC.length + 1);
+        long tableOffset = mapped.getLong(INDEXED_MAGIC.length + 1 + Integer.BYTES);
+        if (count < 0 || tableOffset < INDEXED_HEADER_SIZE
+                || tableOffset + (long) count * Integer.BYTES > mapped.capacity()) {
+            throw new IOException("Corrupted binary catalogue header.");
+        }
+        return mapped.duplicate().position((int) tableOffset).limit((int) tableOffset + count * Integer.BYTES)
+                .slice().asIntBuffer();
+    }
+
+    /**
+     * Сравнивает ключ книги по смещению с искомым ключом без создания строки.
+     *
+     * @param mapped содержимое файла
+     * @param offset смещение книги
+     * @param key    искомый ключ в UTF-8
+     * @return отрицательное число, 0 или положительное число, как {@link Arrays#compareUnsigned(byte[], byte[])}
+     * @throws IOException если запись повреждена
+     */
+    static int compareIndexedKey(ByteBuffer mapped, int offset, byte[] key) throws IOException {
+        ByteBuffer view = mapped.duplicate().position(offset);
+        int length = new Input(view).varint() - 1;
+        if (length < 0 || length > view.remaining()) {
+            throw new IOException("Corrupted key at offset " + offset);
+        }
+        int start = view.position();
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int result = Byte.compareUnsigned(view.get(start + i), key[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Читает книгу по смещению из индексированного файла, отображённого в память.
+     *
+     * @param mapped содержимое файла
+     * @param offset смещение книги
+     * @return Book - новая книга
+     * @throws IOException если запись повреждена
+     */
+    static Book readIndexedBook(ByteBuffer mapped, int offset) throws IOException {
+        Input in = new Input(mapped.duplicate().position(offset));
+        in.string();
+        return readBook(in, mapped.get(INDEXED_MAGIC.length));
+    }
+
+    private static byte checkedVersion(byte version) throws IOException {
+        if (version != VERSION && version != VERSION_WITHOUT_INVENTORY_NUMBER) {
+            throw new IOException("Unsupported binary catalogue version: " + version);
+        }
+        return version;
+    }
+
+    private static int checkedOffset(long position) throws IOException {
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Catalogue is too large for the indexed format: more than 2 GB.");
+        }
+        return (int) position;
+    }
+
+    private static void writeBook(Output out, String key, Book book) throws IOException {
+        out.string(key);
+        writeBookBody(out, book);
+    }
+
+    private static void writeBookBody(Output out, Book book) throws IOException {
+        if (book instanceof FictionBook) {
+            out.put(TYPE_FICTION);
+        } else if (book instanceof TechnicalBook) {
+            out.put(TYPE_TECHNICAL);
+        } else {
+            out.put(TYPE_BOOK);
+        }
+        out.string(book.getTitle());
+        out.string(book.getAuthor());
+        out.varint((book.getYear() << 1) ^ (book.getYear() >> 31));
+        out.string(book.getIsbn());
+        out.ordinal(book.getStatus());
+        out.string(book.getCurrentBorrower());
+        out.string(book.getInventoryNumber());
+
+        if (book instanceof FictionBook fictionBook) {
+            out.string(fictionBook.getGenre());
+        } else if (book instanceof TechnicalBook technicalBook) {
+            out.string(technicalBook.getSubject());
+            out.ordinal(technicalBook.getDifficultyLevel());
+        }
+    }
+
+    private static Book readBook(Input in, byte version) throws IOException {
+        byte type = in.get();
+        Book book = switch (type) {
+            case TYPE_BOOK -> new Book();
+            case TYPE_FICTION -> new FictionBook();
+            case TYPE_TECHNICAL -> new TechnicalBook();
+            default -> throw new IOException("Unknown book type: " + type);
+        };
+
+        String title = in.string();
+        String author = in.string();
+        int zigzagYear = in.varint();
+        int year = (zigzagYear >>> 1) ^ -(zigzagYear & 1);
+        String isbn = in.string();
+        BookStatus status = in.ordinal(STATUSES);
+        String borrower = in.string();
+        book.restore(title, author, year, isbn, status, borrower);
+        if (version != VERSION_WITHOUT_INVENTORY_NUMBER) {
+            book.restoreInventoryNumber(in.string());
+        }
+
+        if (book instanceof FictionBook fictionBook) {
+            fictionBook.restoreGenre(in.string());
+        } else if (book instanceof TechnicalBook technicalBook) {
+            technicalBook.restoreSubject(in.string(), in.ordinal(DIFFICULTY_LEVELS));
+        }
+        return book;
+    }
+
+    /**
+     * Буферизованная запись в FileChannel.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long flushed;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void put(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        private void bytes(byte[] value) throws IOException {
+            if (value.length > buffer.capacity()) {
+                flush();
+                ByteBuffer large = ByteBuffer.wrap(value);
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+                flushed += value.length;
+                return;
+            }
+            ensure(value.length);
+            buffer.put(value);
+        }
+
+        private void varint(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void string(String value) throws IOException {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            utf8(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void utf8(byte[] value) throws IOException {
+            varint(value.length + 1);
+            bytes(value);
+        }
+
+        private void fixedInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        /**
+         * @return количество байт, записанных с начала файла, включая ещё не сброшенные из буфера
+         */
+        private long position() {
+            return flushed + buffer.position();
+        }
+
+        private void ordinal(Enum<?> value) throws IOException {
+            put(value == null ? 0 : (byte) (value.ordinal() + 1));
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            flushed += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Буферизованное чтение из FileChannel или из готового ByteBuffer (например, отображённого в память файла).
+     */
+    private static final class Input {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        private Input(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        }
+
+        private Input(ByteBuffer buffer) {
+            this.channel = null;
+            this.buffer = buffer;
+        }
+
+        private byte get() throws IOException {
+            ensure(1);
+            return buffer.get();
+        }
+
+        private int varint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = get();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint.");
+        }
+
+        private String string() throws IOException {
+            int length = varint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (channel != null && length > buffer.capacity()) {
+                byte[] large = new byte[length];
+                int copied = buffer.remaining();
+                buffer.get(large, 0, copied);
+                ByteBuffer rest = ByteBuffer.wrap(large, copied, length - copied);
+                while (rest.hasRemaining()) {
+                    if (channel.read(rest) < 0) {
+                        throw new EOFException("Unexpected end of binary catalogue.");
+                    }
+                }
+                return new String(large, StandardCharsets.UTF_8);
+            }
+            ensure(length);
+            if (!buffer.hasArray()) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        private <E extends Enum<E>> E ordinal(E[] values) throws IOException {
+            int ordinal = get();
+            if (ordinal == 0) {
+                return null;
+            }
+            if (ordinal < 0 || ordinal > values.length) {
+                throw new IOException("Unknown enum ordinal: " + (ordinal - 1));
+            }
+            return values[ordinal - 1];
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            if (channel == null) {
+                throw new EOFException("Unexpected end of binary catalogue.");
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Unexpected end of binary catalogue.");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
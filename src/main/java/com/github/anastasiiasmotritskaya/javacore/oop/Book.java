@@ -1,27 +1,49 @@
 package com.github.anastasiiasmotritskaya.javacore.oop;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotAvailableException;
 import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotBorrowedException;
 import com.github.anastasiiasmotritskaya.javacore.util.BookValidator;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Представляет книгу в библиотечной системе.
  * Две книги считаются равными если у них одинаковый ISBN.
+ * Статус и текущий читатель хранятся вместе в одном неизменяемом объекте. Чтение статуса не блокирует,
+ * а выдача, возврат и смена статуса выполняются под блокировкой книги одной атомарной операцией:
+ * проверка, уведомление слушателей о предстоящем изменении и замена состояния.
+ * Библиотека подписывается на изменения статуса книги, чтобы поддерживать счётчики книг по статусам
+ * и записывать изменения в журнал.
+ * <p>
+ * В json книга сохраняется с полем type (book, fiction, technical), по которому при загрузке
+ * создаётся нужный подкласс. Книги без поля type, сохранённые ранее, и книги неизвестного типа
+ * загружаются как Book.
  *
  * @author Анастасия Смотрицкая
  * @version 1.0
  */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", defaultImpl = Book.class)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = Book.class, name = "book"),
+        @JsonSubTypes.Type(value = FictionBook.class, name = "fiction"),
+        @JsonSubTypes.Type(value = TechnicalBook.class, name = "technical")
+})
 public class Book extends LibraryItem implements Borrowable {
     private String title;
     private String author;
     private int year;
     private String isbn;
-    private BookStatus status;
-    private String currentBorrower;
+    private final AtomicReference<BorrowState> state = new AtomicReference<>(new BorrowState(null, null));
+    private volatile StatusListener[] statusListeners = NO_STATUS_LISTENERS;
+    private static final StatusListener[] NO_STATUS_LISTENERS = new StatusListener[0];
 
     /**
      * Пустой конструктор класса Book необходим для десериализации json
@@ -48,8 +70,7 @@ public class Book extends LibraryItem implements Borrowable {
         this.author = author.trim();
         this.year = year;
         this.isbn = isbn.trim();
-        this.status = BookStatus.AVAILABLE;
-        this.currentBorrower = null;
+        this.state.set(new BorrowState(BookStatus.AVAILABLE, null));
     }
 
     public String getTitle() {
@@ -69,11 +90,19 @@ public class Book extends LibraryItem implements Borrowable {
     }
 
     public BookStatus getStatus() {
-        return status;
+        return state.get().status();
     }
 
     public void setStatus(BookStatus status) {
-        this.status = status;
+        BorrowState previous;
+        synchronized (this) {
+            previous = state.get();
+            if (previous.status() != status) {
+                fireStatusChanging(status, previous.borrower());
+            }
+            state.set(new BorrowState(status, previous.borrower()));
+        }
+        fireStatusChanged(previous.status(), status);
     }
 
     /**
@@ -88,11 +117,16 @@ public class Book extends LibraryItem implements Borrowable {
         if (borrowerName == null || borrowerName.trim().isEmpty()) {
             throw new IllegalArgumentException("Borrower name must not be null or empty. Enter the borrower's name.");
         }
-        if (!isAvailable()) {
-            throw new BookNotAvailableException(isbn, status);
+        BorrowState current;
+        synchronized (this) {
+            current = state.get();
+            if (current.status() != BookStatus.AVAILABLE) {
+                throw new BookNotAvailableException(isbn, current.status());
+            }
+            fireStatusChanging(BookStatus.BORROWED, borrowerName.trim());
+            state.set(new BorrowState(BookStatus.BORROWED, borrowerName.trim()));
         }
-        this.status = BookStatus.BORROWED;
-        this.currentBorrower = borrowerName.trim();
+        fireStatusChanged(current.status(), BookStatus.BORROWED);
     }
 
     /**
@@ -102,11 +136,16 @@ public class Book extends LibraryItem implements Borrowable {
      */
     @Override
     public void returnBook() {
-        if (status != BookStatus.BORROWED) {
-            throw new BookNotBorrowedException(isbn, status);
+        BorrowState current;
+        synchronized (this) {
+            current = state.get();
+            if (current.status() != BookStatus.BORROWED) {
+                throw new BookNotBorrowedException(isbn, current.status());
+            }
+            fireStatusChanging(BookStatus.AVAILABLE, null);
+            state.set(new BorrowState(BookStatus.AVAILABLE, null));
         }
-        this.status = BookStatus.AVAILABLE;
-        this.currentBorrower = null;
+        fireStatusChanged(current.status(), BookStatus.AVAILABLE);
     }
 
     /**
@@ -117,23 +156,113 @@ public class Book extends LibraryItem implements Borrowable {
     @Override
     @JsonIgnore
     public boolean isAvailable() {
-        return status == BookStatus.AVAILABLE;
+        return getStatus() == BookStatus.AVAILABLE;
     }
 
     @Override
     public String getCurrentBorrower() {
-        return this.currentBorrower;
+        return state.get().borrower();
+    }
+
+    /**
+     * Сеттер для десериализации json
+     */
+    @JsonProperty("currentBorrower")
+    private void setCurrentBorrower(String currentBorrower) {
+        state.updateAndGet(current -> new BorrowState(current.status(), currentBorrower));
+    }
+
+    /**
+     * Заполняет поля книги без валидации, как при десериализации json.
+     * Используется при чтении двоичного каталога.
+     */
+    void restore(String title, String author, int year, String isbn, BookStatus status, String borrower) {
+        this.title = title;
+        this.author = author;
+        this.year = year;
+        this.isbn = isbn;
+        BorrowState previous = this.state.getAndSet(new BorrowState(status, borrower));
+        fireStatusChanged(previous.status(), status);
+    }
+
+    /**
+     * Заменяет статус и читателя без проверок, как при чтении файла, но с уведомлением слушателей
+     * об уже сделанном изменении. Используется при применении журнала.
+     */
+    void restoreState(BookStatus status, String borrower) {
+        BorrowState previous = state.getAndSet(new BorrowState(status, borrower));
+        fireStatusChanged(previous.status(), status);
+    }
+
+    /**
+     * Подписывает слушателя на изменения статуса книги.
+     * Слушатели, которые больше не активны (например, их библиотека уже собрана сборщиком мусора), удаляются.
+     *
+     * @param listener слушатель, вызывается в потоке, изменившем статус
+     */
+    synchronized void addStatusListener(StatusListener listener) {
+        StatusListener[] listeners = new StatusListener[statusListeners.length + 1];
+        int count = 0;
+        for (StatusListener current : statusListeners) {
+            if (current.isActive()) {
+                listeners[count++] = current;
+            }
+        }
+        listeners[count++] = listener;
+        statusListeners = count == listeners.length ? listeners : Arrays.copyOf(listeners, count);
+    }
+
+    /**
+     * Отписывает слушателя от изменений статуса книги.
+     *
+     * @param listener слушатель, ранее переданный в {@link #addStatusListener(StatusListener)}
+     */
+    synchronized void removeStatusListener(StatusListener listener) {
+        StatusListener[] listeners = statusListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                StatusListener[] remaining = new StatusListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                statusListeners = remaining.length == 0 ? NO_STATUS_LISTENERS : remaining;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Сообщает слушателям о предстоящем изменении. Вызывается под блокировкой книги до замены состояния,
+     * поэтому исключение слушателя отменяет изменение.
+     * Вспомогательный метод
+     */
+    private void fireStatusChanging(BookStatus status, String borrower) {
+        for (StatusListener listener : statusListeners) {
+            listener.statusChanging(this, status, borrower);
+        }
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private void fireStatusChanged(BookStatus previous, BookStatus current) {
+        if (previous == current) {
+            return;
+        }
+        for (StatusListener listener : statusListeners) {
+            listener.statusChanged(previous, current);
+        }
     }
 
     @Override
     public String toString() {
+        BorrowState current = state.get();
         return "Book{" +
                 "title='" + title + '\'' +
                 ", author='" + author + '\'' +
                 ", year=" + year +
                 ", isbn='" + isbn + '\'' +
-                ", status=" + status +
-                ", currentBorrower='" + currentBorrower + '\'' +
+                ", status=" + current.status() +
+                ", currentBorrower='" + current.borrower() + '\'' +
                 '}';
     }
 
@@ -152,6 +281,50 @@ public class Book extends LibraryItem implements Borrowable {
     @Override
     @JsonIgnore
     public String getDescription() {
-        return String.format("Title: '%s'%nAuthor: %s%nStatus: %s%n", title, author, status);
+        return String.format("Title: '%s'%nAuthor: %s%nStatus: %s%n", title, author, getStatus());
+    }
+
+    /**
+     * Записывает одну строку отчёта {@link Library#getAllBooksBasicInfo()} без промежуточных строк.
+     * Подклассы переопределяют метод, чтобы добавить свои поля.
+     *
+     * @param out куда записать строку отчёта
+     * @throws IOException если запись не удалась
+     */
+    void writeBasicInfo(Appendable out) throws IOException {
+        out.append("Book: ").append(title).append(System.lineSeparator());
+    }
+
+    /**
+     * Состояние выдачи книги: статус и имя текущего читателя.
+     * Заменяется целиком при каждом изменении.
+     */
+    private record BorrowState(BookStatus status, String borrower) {
+    }
+
+    /**
+     * Слушатель изменений статуса книги.
+     * Получает каждое изменение ровно один раз, с тем статусом, который был заменён.
+     */
+    interface StatusListener {
+        /**
+         * Вызывается до выдачи, возврата или смены статуса через публичные методы книги.
+         * Если метод выбрасывает исключение, состояние книги не меняется.
+         *
+         * @param book     книга, статус которой меняется
+         * @param status   новый статус
+         * @param borrower читатель после изменения (null, если его нет)
+         */
+        default void statusChanging(Book book, BookStatus status, String borrower) {
+        }
+
+        void statusChanged(BookStatus previous, BookStatus current);
+
+        /**
+         * @return false если слушатель больше не нужен и его можно удалить при следующей подписке
+         */
+        default boolean isActive() {
+            return true;
+        }
     }
 }
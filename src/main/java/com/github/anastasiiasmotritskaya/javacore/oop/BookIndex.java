@@ -0,0 +1,235 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Вторичные индексы библиотеки: автор → множество ISBN, название → множество ISBN
+ * и упорядоченный индекс год издания → множество ISBN.
+ * Ключи индексов автора и названия приводятся к нижнему регистру и очищаются от пробелов по краям,
+ * поэтому поиск остаётся регистронезависимым, но не требует просмотра всех книг.
+ * <p>
+ * Для поиска по словам названия и автора хранятся обратные индексы слово → множество ISBN.
+ * Слова хранятся в упорядоченных картах, поэтому все слова с заданным префиксом
+ * образуют непрерывный диапазон ключей и находятся без перебора словаря, как в префиксном дереве.
+ * <p>
+ * Потокобезопасная версия индекса создаётся методом {@link #concurrent()}.
+ * В ней изменения по одному ключу атомарны, а чтение не блокируется.
+ * Пустые группы по годам и словам в потокобезопасной версии не удаляются: удаление пустой группы
+ * могло бы потерять ISBN, который параллельно в неё добавляется.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+final class BookIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final boolean concurrent;
+    private final Map<String, Set<String>> isbnsByAuthor;
+    private final Map<String, Set<String>> isbnsByTitle;
+    private final NavigableMap<Integer, Set<String>> isbnsByYear;
+    private final NavigableMap<String, Set<String>> isbnsByTitleToken;
+    private final NavigableMap<String, Set<String>> isbnsByAuthorToken;
+
+    /**
+     * Создаёт индекс для использования из одного потока.
+     */
+    BookIndex() {
+        this(false);
+    }
+
+    private BookIndex(boolean concurrent) {
+        this.concurrent = concurrent;
+        this.isbnsByAuthor = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.isbnsByTitle = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.isbnsByYear = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+        this.isbnsByTitleToken = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+        this.isbnsByAuthorToken = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    /**
+     * Создаёт потокобезопасный индекс.
+     *
+     * @return BookIndex - индекс на основе ConcurrentHashMap и ConcurrentSkipListMap
+     */
+    static BookIndex concurrent() {
+        return new BookIndex(true);
+    }
+
+    /**
+     * Добавляет книгу в индексы.
+     *
+     * @param isbn ключ книги в библиотеке
+     * @param book книга (поля author и title могут быть null у книг, загруженных из json)
+     */
+    void add(String isbn, Book book) {
+        addEntry(isbnsByAuthor, book.getAuthor(), isbn);
+        addEntry(isbnsByTitle, book.getTitle(), isbn);
+        isbnsByYear.computeIfAbsent(book.getYear(), key -> newIsbnSet()).add(isbn);
+        for (String token : tokenize(book.getTitle())) {
+            addEntry(isbnsByTitleToken, token, isbn);
+        }
+        for (String token : tokenize(book.getAuthor())) {
+            addEntry(isbnsByAuthorToken, token, isbn);
+        }
+    }
+
+    /**
+     * Удаляет книгу из индексов.
+     *
+     * @param isbn ключ книги в библиотеке
+     * @param book удаляемая книга
+     */
+    void remove(String isbn, Book book) {
+        removeEntry(isbnsByAuthor, book.getAuthor(), isbn);
+        removeEntry(isbnsByTitle, book.getTitle(), isbn);
+        removeSortedEntry(isbnsByYear, book.getYear(), isbn);
+        for (String token : tokenize(book.getTitle())) {
+            removeSortedEntry(isbnsByTitleToken, token, isbn);
+        }
+        for (String token : tokenize(book.getAuthor())) {
+            removeSortedEntry(isbnsByAuthorToken, token, isbn);
+        }
+    }
+
+    /**
+     * Очищает все индексы.
+     */
+    void clear() {
+        isbnsByAuthor.clear();
+        isbnsByTitle.clear();
+        isbnsByYear.clear();
+        isbnsByTitleToken.clear();
+        isbnsByAuthorToken.clear();
+    }
+
+    /**
+     * @param author имя автора (регистр не важен)
+     * @return Set - ISBN книг автора, пустое множество если книг нет
+     */
+    Set<String> findIsbnsByAuthor(String author) {
+        return isbnsByAuthor.getOrDefault(normalize(author), Collections.emptySet());
+    }
+
+    /**
+     * @param title название книги (регистр не важен)
+     * @return Set - ISBN книг с таким названием, пустое множество если книг нет
+     */
+    Set<String> findIsbnsByTitle(String title) {
+        return isbnsByTitle.getOrDefault(normalize(title), Collections.emptySet());
+    }
+
+    /**
+     * Возвращает группы ISBN по годам издания в указанном диапазоне.
+     * Затрагиваются только годы, в которых есть книги.
+     *
+     * @param fromYear начальный год (включительно)
+     * @param toYear   конечный год (включительно)
+     * @return Collection - множества ISBN, упорядоченные по году издания
+     */
+    Collection<Set<String>> findIsbnsByYearRange(int fromYear, int toYear) {
+        return isbnsByYear.subMap(fromYear, true, toYear, true).values();
+    }
+
+    /**
+     * @param token слово из названия, уже приведённое методом {@link #tokenize(String)}
+     * @return Set - ISBN книг, в названии которых есть это слово
+     */
+    Set<String> findIsbnsByTitleToken(String token) {
+        return isbnsByTitleToken.getOrDefault(token, Collections.emptySet());
+    }
+
+    /**
+     * @param token слово из имени автора, уже приведённое методом {@link #tokenize(String)}
+     * @return Set - ISBN книг, в имени автора которых есть это слово
+     */
+    Set<String> findIsbnsByAuthorToken(String token) {
+        return isbnsByAuthorToken.getOrDefault(token, Collections.emptySet());
+    }
+
+    /**
+     * Возвращает группы ISBN по словам названия и автора, начинающимся с префикса.
+     * Сначала идут слова названий, затем слова авторов, внутри каждой группы - в алфавитном порядке.
+     * Группы не копируются, поэтому можно остановиться после нескольких первых.
+     *
+     * @param prefix префикс слова, уже приведённый к нижнему регистру
+     * @return Stream - множества ISBN для каждого подходящего слова
+     */
+    Stream<Set<String>> findIsbnsByTokenPrefix(String prefix) {
+        return Stream.concat(tokenPrefixRange(isbnsByTitleToken, prefix).values().stream(),
+                tokenPrefixRange(isbnsByAuthorToken, prefix).values().stream());
+    }
+
+    /**
+     * Разбивает строку на слова: приводит к нижнему регистру и делит по всем символам, кроме букв и цифр.
+     *
+     * @param value строка (может быть null)
+     * @return List - различные слова в порядке появления, пустой список для null
+     */
+    static List<String> tokenize(String value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalize(value))) {
+            if (!token.isEmpty() && !tokens.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Set<String> newIsbnSet() {
+        return concurrent ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    }
+
+    private void addEntry(Map<String, Set<String>> index, String value, String isbn) {
+        if (value == null) {
+            return;
+        }
+        index.compute(normalize(value), (key, isbns) -> {
+            Set<String> result = isbns == null ? newIsbnSet() : isbns;
+            result.add(isbn);
+            return result;
+        });
+    }
+
+    private static SortedMap<String, Set<String>> tokenPrefixRange(NavigableMap<String, Set<String>> index,
+                                                                  String prefix) {
+        return index.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    /**
+     * Удаляет ISBN из упорядоченного индекса. Пустые группы удаляются только в однопоточной версии.
+     */
+    private <K> void removeSortedEntry(NavigableMap<K, Set<String>> index, K key, String isbn) {
+        if (concurrent) {
+            Set<String> isbns = index.get(key);
+            if (isbns != null) {
+                isbns.remove(isbn);
+            }
+            return;
+        }
+        index.computeIfPresent(key, (k, isbns) -> {
+            isbns.remove(isbn);
+            return isbns.isEmpty() ? null : isbns;
+        });
+    }
+
+    private static void removeEntry(Map<String, Set<String>> index, String value, String isbn) {
+        if (value == null) {
+            return;
+        }
+        index.computeIfPresent(normalize(value), (key, isbns) -> {
+            isbns.remove(isbn);
+            return isbns.isEmpty() ? null : isbns;
+        });
+    }
+}
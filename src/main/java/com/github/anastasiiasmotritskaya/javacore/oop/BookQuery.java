@@ -0,0 +1,203 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import com.github.anastasiiasmotritskaya.javacore.util.BookValidator;
+import com.github.anastasiiasmotritskaya.javacore.util.LibraryValidator;
+
+/**
+ * Составной запрос к библиотеке: все заданные условия должны выполняться одновременно.
+ * Условия задаются цепочкой вызовов, незаданные условия не проверяются, например
+ * {@code new BookQuery().author("Richard Bachman").yearRange(1990, 2000).status(BookStatus.AVAILABLE)}.
+ * <p>
+ * Автор, название, жанр и предмет сравниваются без учёта регистра и пробелов по краям.
+ * Жанр имеет смысл только для {@link FictionBook}, предмет и уровень сложности - для {@link TechnicalBook},
+ * поэтому книги других типов им не соответствуют.
+ * <p>
+ * Запрос выполняется методом {@link Library#findBooks(BookQuery)}. Повторный вызов метода условия
+ * заменяет предыдущее значение.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+public final class BookQuery {
+    private String author;
+    private String title;
+    private Integer fromYear;
+    private Integer toYear;
+    private BookStatus status;
+    private Class<? extends Book> type;
+    private String genre;
+    private String subject;
+    private DifficultyLevel difficultyLevel;
+
+    /**
+     * @param author автор книги (проходит валидацию)
+     * @return BookQuery - этот же запрос
+     */
+    public BookQuery author(String author) {
+        BookValidator.validateAuthor(author);
+        this.author = author;
+        return this;
+    }
+
+    /**
+     * @param title название книги целиком (проходит валидацию)
+     * @return BookQuery - этот же запрос
+     */
+    public BookQuery title(String title) {
+        BookValidator.validateTitle(title);
+        this.title = title;
+        return this;
+    }
+
+    /**
+     * @param fromYear начальный год (включительно)
+     * @param toYear   конечный год (включительно)
+     * @return BookQuery - этот же запрос
+     * @throws IllegalArgumentException если годы издания неверны или конечный год меньше начального
+     */
+    public BookQuery yearRange(int fromYear, int toYear) {
+        BookValidator.validateYear(fromYear);
+        BookValidator.validateYear(toYear);
+        LibraryValidator.validateYearRange(fromYear, toYear);
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        return this;
+    }
+
+    /**
+     * @param status статус книги
+     * @return BookQuery - этот же запрос
+     * @throws IllegalArgumentException если status null
+     */
+    public BookQuery status(BookStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status must not be null.");
+        }
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * @param type тип книги, подходят также его наследники (например, Book.class подходит всем книгам)
+     * @return BookQuery - этот же запрос
+     * @throws IllegalArgumentException если type null
+     */
+    public BookQuery type(Class<? extends Book> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type must not be null.");
+        }
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * @param genre жанр художественной книги
+     * @return BookQuery - этот же запрос
+     * @throws IllegalArgumentException если genre null или пустой
+     */
+    public BookQuery genre(String genre) {
+        validateText(genre, "Genre");
+        this.genre = genre;
+        return this;
+    }
+
+    /**
+     * @param subject предмет технической книги
+     * @return BookQuery - этот же запрос
+     * @throws IllegalArgumentException если subject null или пустой
+     */
+    public BookQuery subject(String subject) {
+        validateText(subject, "Subject");
+        this.subject = subject;
+        return this;
+    }
+
+    /**
+     * @param difficultyLevel уровень сложности технической книги
+     * @return BookQuery - этот же запрос
+     * @throws IllegalArgumentException если difficultyLevel null
+     */
+    public BookQuery difficultyLevel(DifficultyLevel difficultyLevel) {
+        if (difficultyLevel == null) {
+            throw new IllegalArgumentException("Difficulty level must not be null.");
+        }
+        this.difficultyLevel = difficultyLevel;
+        return this;
+    }
+
+    String getAuthor() {
+        return author;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    boolean hasYearRange() {
+        return fromYear != null;
+    }
+
+    int getFromYear() {
+        return fromYear;
+    }
+
+    int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * Проверяет все условия запроса, кроме тех, что уже выполнены благодаря выбранному индексу.
+     *
+     * @param book          проверяемая книга
+     * @param skipAuthor    условие по автору уже выполнено
+     * @param skipTitle     условие по названию уже выполнено
+     * @param skipYearRange условие по году издания уже выполнено
+     * @return true если книга соответствует остальным условиям
+     */
+    boolean matches(Book book, boolean skipAuthor, boolean skipTitle, boolean skipYearRange) {
+        if (fromYear != null && !skipYearRange && (book.getYear() < fromYear || book.getYear() > toYear)) {
+            return false;
+        }
+        if (status != null && book.getStatus() != status) {
+            return false;
+        }
+        if (type != null && !type.isInstance(book)) {
+            return false;
+        }
+        if (author != null && !skipAuthor && !sameText(author, book.getAuthor())) {
+            return false;
+        }
+        if (title != null && !skipTitle && !sameText(title, book.getTitle())) {
+            return false;
+        }
+        if (genre != null && !(book instanceof FictionBook fiction && sameText(genre, fiction.getGenre()))) {
+            return false;
+        }
+        if (subject != null || difficultyLevel != null) {
+            if (!(book instanceof TechnicalBook technical)) {
+                return false;
+            }
+            if (subject != null && !sameText(subject, technical.getSubject())) {
+                return false;
+            }
+            return difficultyLevel == null || difficultyLevel == technical.getDifficultyLevel();
+        }
+        return true;
+    }
+
+    /**
+     * Вспомогательный метод для сравнения строк так же, как это делают индексы библиотеки.
+     */
+    private static boolean sameText(String expected, String actual) {
+        return actual != null && BookIndex.normalize(expected).equals(BookIndex.normalize(actual));
+    }
+
+    /**
+     * Вспомогательный метод для валидации текстовых условий.
+     */
+    private static void validateText(String value, String name) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(name + " must not be null or empty.");
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookAlreadyExistsException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotAvailableException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotBorrowedException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.util.BookValidator;
+import com.github.anastasiiasmotritskaya.javacore.util.LibraryValidator;
+
+import java.util.*;
+
+/**
+ * Библиотека книг, которая хранит поля книг по столбцам в массивах примитивов, а не в объектах Book.
+ * Год издания хранится в int[], статус - в byte[], название, автор, жанр и предмет заменены номерами
+ * в словарях строк (одинаковые строки хранятся один раз), ISBN из 13 цифр упакованы в long[].
+ * ISBN с буквами хранятся отдельным столбцом строк, который создаётся только при появлении такого ISBN.
+ * Поиск по ISBN выполняется по открытой хеш-таблице номеров строк, без объектов-ключей.
+ * <p>
+ * Так в куче остаются несколько больших массивов вместо миллионов объектов, и сборщику мусора
+ * почти нечего обходить, а просмотр книг по году или статусу - это цикл по массиву примитивов.
+ * <p>
+ * Книги, которые возвращают методы поиска, - новые объекты, собранные из столбцов при каждом вызове,
+ * как в {@link MappedCatalog}. Их изменения в библиотеку не записываются: выдача и возврат
+ * выполняются методами {@link #borrowBook(String, String)} и {@link #returnBook(String)}.
+ * Инвентарные номера книг не хранятся, как и в двоичном формате каталога.
+ * Словари строк не уменьшаются при удалении книг.
+ * <p>
+ * Класс не потокобезопасен.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+public class ColumnarLibrary {
+    private static final int MIN_CAPACITY = 16;
+    private static final int NO_VALUE = -1;
+
+    private static final byte TYPE_BOOK = 0;
+    private static final byte TYPE_FICTION = 1;
+    private static final byte TYPE_TECHNICAL = 2;
+
+    private static final BookStatus[] STATUSES = BookStatus.values();
+    private static final DifficultyLevel[] DIFFICULTY_LEVELS = DifficultyLevel.values();
+
+    private final StringDictionary titles = new StringDictionary();
+    private final StringDictionary authors = new StringDictionary();
+    private final StringDictionary details = new StringDictionary();
+
+    private int size;
+    private long[] isbnKeys;
+    private String[] otherIsbns;
+    private int[] titleIds;
+    private int[] authorIds;
+    private int[] years;
+    private byte[] statuses;
+    private byte[] types;
+    private int[] detailIds;
+    private byte[] difficultyLevels;
+    private String[] borrowers;
+    private int[] table;
+
+    /**
+     * Создаёт новую пустую библиотеку.
+     */
+    public ColumnarLibrary() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Создаёт новую библиотеку с указанным списком книг. Книги копируются в столбцы.
+     *
+     * @param books список книг (может быть пустым, ключ - ISBN)
+     * @throws BookAlreadyExistsException если ключи повторяются (невозможно для Map)
+     */
+    public ColumnarLibrary(Map<String, Book> books) {
+        allocate(Math.max(MIN_CAPACITY, books.size()));
+        for (Map.Entry<String, Book> entry : books.entrySet()) {
+            append(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Добавляет книгу в библиотеку.
+     *
+     * @param book книга для добавления (не может быть null)
+     * @throws BookAlreadyExistsException если книга с таким ISBN уже существует в библиотеке
+     */
+    public void addBook(Book book) {
+        append(book.getIsbn(), book);
+    }
+
+    /**
+     * Удаляет книгу из бибилиотеки. Место удалённой книги занимает последняя книга в столбцах,
+     * поэтому удаление не сдвигает массивы.
+     *
+     * @param isbn книга для удаления (проходит валидацию)
+     * @throws BookNotFoundException если книги с таким ISBN в библиотеке нет
+     */
+    public void deleteBook(String isbn) {
+        removeRow(findRow(isbn));
+    }
+
+    /**
+     * Выдаёт книгу читателю.
+     *
+     * @param isbn         ISBN книги (проходит валидацию)
+     * @param borrowerName имя читателя
+     * @throws BookNotFoundException     если книги с таким ISBN в библиотеке нет
+     * @throws BookNotAvailableException если книга уже в статусе BORROWED или RESERVED
+     * @throws IllegalArgumentException  если borrowerName null или пустое
+     */
+    public void borrowBook(String isbn, String borrowerName) {
+        if (borrowerName == null || borrowerName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Borrower name must not be null or empty. Enter the borrower's name.");
+        }
+        int row = findRow(isbn);
+        BookStatus status = statusAt(row);
+        if (status != BookStatus.AVAILABLE) {
+            throw new BookNotAvailableException(isbn, status);
+        }
+        if (borrowers == null) {
+            borrowers = new String[isbnKeys.length];
+        }
+        statuses[row] = ordinal(BookStatus.BORROWED);
+        borrowers[row] = borrowerName.trim();
+    }
+
+    /**
+     * Возвращает книгу в библиотеку.
+     *
+     * @param isbn ISBN книги (проходит валидацию)
+     * @throws BookNotFoundException    если книги с таким ISBN в библиотеке нет
+     * @throws BookNotBorrowedException если книга не была выдана
+     */
+    public void returnBook(String isbn) {
+        int row = findRow(isbn);
+        BookStatus status = statusAt(row);
+        if (status != BookStatus.BORROWED) {
+            throw new BookNotBorrowedException(isbn, status);
+        }
+        statuses[row] = ordinal(BookStatus.AVAILABLE);
+        borrowers[row] = null;
+    }
+
+    /**
+     * Поиск книги в библиотеке по ISBN.
+     *
+     * @param isbn книга для поиска (проходит валидацию)
+     * @return Book - новую книгу, собранную из столбцов
+     * @throws BookNotFoundException если книги с таким ISBN в библиотеке нет
+     */
+    public Book findBookByISBN(String isbn) {
+        return bookAt(findRow(isbn));
+    }
+
+    /**
+     * Поиск книги в библиотеке по автору (регистр не важен).
+     * Подходящие имена ищутся в словаре авторов, затем просматривается столбец номеров авторов.
+     *
+     * @param author автор, чьи книги необходимо найти (проходит валидацию)
+     * @return List - список книг данного автора
+     * Если книг этого автора в библиотеке нет, возвращает пустой список
+     */
+    public List<Book> findBookByAuthor(String author) {
+        BookValidator.validateAuthor(author);
+        BitSet matching = authors.idsMatching(author);
+        List<Book> found = new ArrayList<>();
+        if (matching.isEmpty()) {
+            return found;
+        }
+        for (int row = 0; row < size; row++) {
+            int id = authorIds[row];
+            if (id != NO_VALUE && matching.get(id)) {
+                found.add(bookAt(row));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Ищет книги, изданные в указанный период.
+     *
+     * @param fromYear начальный год (включительно)
+     * @param toYear   конечный год (включительно)
+     * @return List книги, удовлетворяющие условию, в порядке добавления
+     * @throws IllegalArgumentException если введенные годы издания меньше 1457 или больше текущего
+     *                                  или если конечный год меньше начального года
+     */
+    public List<Book> findBooksByYearRange(int fromYear, int toYear) {
+        validateYearRange(fromYear, toYear);
+        List<Book> found = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            int year = years[row];
+            if (year >= fromYear && year <= toYear) {
+                found.add(bookAt(row));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Подсчитывает книги, изданные в указанный период, не создавая объекты Book.
+     *
+     * @param fromYear начальный год (включительно)
+     * @param toYear   конечный год (включительно)
+     * @return int - количество книг, изданных в этот период
+     * @throws IllegalArgumentException если введенные годы издания меньше 1457 или больше текущего
+     *                                  или если конечный год меньше начального года
+     */
+    public int countBooksByYearRange(int fromYear, int toYear) {
+        validateYearRange(fromYear, toYear);
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            int year = years[row];
+            if (year >= fromYear && year <= toYear) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Подсчитывает количество книг по каждому статусу одним проходом по столбцу статусов.
+     *
+     * @return Map ({статус=количество)}, статусы без книг в Map не входят
+     */
+    public Map<BookStatus, Integer> countBooksByStatus() {
+        int[] counts = new int[STATUSES.length + 1];
+        for (int row = 0; row < size; row++) {
+            counts[statuses[row]]++;
+        }
+
+        Map<BookStatus, Integer> statusMap = new HashMap<>();
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (counts[slot] > 0) {
+                statusMap.put(slot == 0 ? null : STATUSES[slot - 1], counts[slot]);
+            }
+        }
+        return statusMap;
+    }
+
+    /**
+     * Возвращает множество уникальных авторов в библиотеке.
+     *
+     * @return Set уникальные имена авторов
+     */
+    public Set<String> getAllUniqueAuthors() {
+        BitSet used = new BitSet(authors.size());
+        boolean withoutAuthor = false;
+        for (int row = 0; row < size; row++) {
+            if (authorIds[row] == NO_VALUE) {
+                withoutAuthor = true;
+            } else {
+                used.set(authorIds[row]);
+            }
+        }
+
+        Set<String> result = new HashSet<>();
+        for (int id = used.nextSetBit(0); id >= 0; id = used.nextSetBit(id + 1)) {
+            result.add(authors.value(id));
+        }
+        if (withoutAuthor) {
+            result.add(null);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает список всех книг в библиотеке. Все книги собираются из столбцов заново,
+     * поэтому для больших библиотек метод дорогой.
+     *
+     * @return Map - копия списка всех книг в библиотеке (ключ - ISBN)
+     */
+    public Map<String, Book> getAllBooks() {
+        Map<String, Book> result = new HashMap<>(size * 4 / 3 + 1);
+        for (int row = 0; row < size; row++) {
+            result.put(isbnAt(row), bookAt(row));
+        }
+        return result;
+    }
+
+    /**
+     * @return int - количество книг в библиотеке
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Загружает библиотеку из файла в формате json и заменяет ею текущие книги.
+     *
+     * @param filePath путь, по которому находится файл в формате json
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файл не удалось прочитать (см. {@link Library#loadFromJsonFile(String)})
+     */
+    public void loadFromJsonFile(String filePath) {
+        Map<String, Book> books = Library.readJsonFile(filePath, null);
+
+        titles.clear();
+        authors.clear();
+        details.clear();
+        borrowers = null;
+        otherIsbns = null;
+        size = 0;
+        allocate(Math.max(MIN_CAPACITY, books.size()));
+        for (Map.Entry<String, Book> entry : books.entrySet()) {
+            append(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Добавляет книгу в конец столбцов и в таблицу ISBN.
+     * Вспомогательный метод
+     */
+    private void append(String isbn, Book book) {
+        long key = CompactIsbnMap.pack(isbn);
+        int slot = findSlot(key, isbn);
+        if (table[slot] != 0) {
+            throw new BookAlreadyExistsException(isbn);
+        }
+        if (size == isbnKeys.length) {
+            grow();
+            slot = findSlot(key, isbn);
+        }
+
+        int row = size++;
+        isbnKeys[row] = key;
+        if (key == CompactIsbnMap.NOT_PACKED) {
+            if (otherIsbns == null) {
+                otherIsbns = new String[isbnKeys.length];
+            }
+            otherIsbns[row] = isbn;
+        }
+        titleIds[row] = titles.id(book.getTitle());
+        authorIds[row] = authors.id(book.getAuthor());
+        years[row] = book.getYear();
+        statuses[row] = ordinal(book.getStatus());
+        if (book.getCurrentBorrower() != null) {
+            if (borrowers == null) {
+                borrowers = new String[isbnKeys.length];
+            }
+            borrowers[row] = book.getCurrentBorrower();
+        }
+
+        if (book instanceof FictionBook fictionBook) {
+            types[row] = TYPE_FICTION;
+            detailIds[row] = details.id(fictionBook.getGenre());
+            difficultyLevels[row] = 0;
+        } else if (book instanceof TechnicalBook technicalBook) {
+            types[row] = TYPE_TECHNICAL;
+            detailIds[row] = details.id(technicalBook.getSubject());
+            difficultyLevels[row] = ordinal(technicalBook.getDifficultyLevel());
+        } else {
+            types[row] = TYPE_BOOK;
+            detailIds[row] = NO_VALUE;
+            difficultyLevels[row] = 0;
+        }
+        table[slot] = row + 1;
+    }
+
+    /**
+     * Удаляет строку из таблицы ISBN и переносит на её место последнюю строку столбцов.
+     * Вспомогательный метод
+     */
+    private void removeRow(int row) {
+        removeSlot(findSlot(isbnKeys[row], isbnAt(row)));
+
+        int last = --size;
+        if (row != last) {
+            int lastSlot = findSlot(isbnKeys[last], isbnAt(last));
+            isbnKeys[row] = isbnKeys[last];
+            if (otherIsbns != null) {
+                otherIsbns[row] = otherIsbns[last];
+            }
+            titleIds[row] = titleIds[last];
+            authorIds[row] = authorIds[last];
+            years[row] = years[last];
+            statuses[row] = statuses[last];
+            types[row] = types[last];
+            detailIds[row] = detailIds[last];
+            difficultyLevels[row] = difficultyLevels[last];
+            if (borrowers != null) {
+                borrowers[row] = borrowers[last];
+            }
+            table[lastSlot] = row + 1;
+        }
+        if (otherIsbns != null) {
+            otherIsbns[last] = null;
+        }
+        if (borrowers != null) {
+            borrowers[last] = null;
+        }
+    }
+
+    /**
+     * Находит строку книги по ISBN.
+     * Вспомогательный метод
+     */
+    private int findRow(String isbn) {
+        BookValidator.validateIsbn(isbn);
+        int row = table[findSlot(CompactIsbnMap.pack(isbn), isbn)] - 1;
+        if (row < 0) {
+            throw new BookNotFoundException(isbn);
+        }
+        return row;
+    }
+
+    /**
+     * Возвращает ячейку таблицы с этим ISBN или первую пустую ячейку, в которую его нужно добавить.
+     * Вспомогательный метод
+     */
+    private int findSlot(long key, String isbn) {
+        int mask = table.length - 1;
+        int slot = hash(key, isbn) & mask;
+        while (table[slot] != 0) {
+            int row = table[slot] - 1;
+            if (isbnKeys[row] == key && (key != CompactIsbnMap.NOT_PACKED || otherIsbns[row].equals(isbn))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Освобождает ячейку таблицы и сдвигает назад следующие за ней ячейки той же цепочки,
+     * чтобы поиск не останавливался на пустой ячейке.
+     * Вспомогательный метод
+     */
+    private void removeSlot(int slot) {
+        int mask = table.length - 1;
+        int next = (slot + 1) & mask;
+        while (table[next] != 0) {
+            int row = table[next] - 1;
+            int home = hash(isbnKeys[row], isbnAt(row)) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                table[slot] = table[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[slot] = 0;
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private static int hash(long key, String isbn) {
+        return key == CompactIsbnMap.NOT_PACKED ? CompactIsbnMap.mix(isbn.hashCode()) : CompactIsbnMap.mix(key);
+    }
+
+    /**
+     * Собирает книгу из столбцов, как при чтении двоичного каталога.
+     * Вспомогательный метод
+     */
+    private Book bookAt(int row) {
+        Book book = switch (types[row]) {
+            case TYPE_FICTION -> new FictionBook();
+            case TYPE_TECHNICAL -> new TechnicalBook();
+            default -> new Book();
+        };
+        book.restore(titles.value(titleIds[row]), authors.value(authorIds[row]), years[row], isbnAt(row),
+                statusAt(row), borrowers == null ? null : borrowers[row]);
+
+        if (book instanceof FictionBook fictionBook) {
+            fictionBook.restoreGenre(details.value(detailIds[row]));
+        } else if (book instanceof TechnicalBook technicalBook) {
+            int level = difficultyLevels[row];
+            technicalBook.restoreSubject(details.value(detailIds[row]), level == 0 ? null : DIFFICULTY_LEVELS[level - 1]);
+        }
+        return book;
+    }
+
+    private String isbnAt(int row) {
+        long key = isbnKeys[row];
+        return key == CompactIsbnMap.NOT_PACKED ? otherIsbns[row] : CompactIsbnMap.unpack(key);
+    }
+
+    private BookStatus statusAt(int row) {
+        int status = statuses[row];
+        return status == 0 ? null : STATUSES[status - 1];
+    }
+
+    /**
+     * Перечисления хранятся как порядковый номер + 1, 0 означает null.
+     * Вспомогательный метод
+     */
+    private static byte ordinal(Enum<?> value) {
+        return (byte) (value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static void validateYearRange(int fromYear, int toYear) {
+        BookValidator.validateYear(fromYear);
+        BookValidator.validateYear(toYear);
+        LibraryValidator.validateYearRange(fromYear, toYear);
+    }
+
+    /**
+     * Создаёт пустые столбцы и таблицу ISBN на capacity книг.
+     * Вспомогательный метод
+     */
+    private void allocate(int capacity) {
+        isbnKeys = new long[capacity];
+        titleIds = new int[capacity];
+        authorIds = new int[capacity];
+        years = new int[capacity];
+        statuses = new byte[capacity];
+        types = new byte[capacity];
+        detailIds = new int[capacity];
+        difficultyLevels = new byte[capacity];
+        table = new int[tableCapacityFor(capacity)];
+    }
+
+    /**
+     * Увеличивает столбцы вдвое и перестраивает таблицу ISBN.
+     * Вспомогательный метод
+     */
+    private void grow() {
+        int capacity = isbnKeys.length * 2;
+        isbnKeys = Arrays.copyOf(isbnKeys, capacity);
+        titleIds = Arrays.copyOf(titleIds, capacity);
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        years = Arrays.copyOf(years, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        types = Arrays.copyOf(types, capacity);
+        detailIds = Arrays.copyOf(detailIds, capacity);
+        difficultyLevels = Arrays.copyOf(difficultyLevels, capacity);
+        if (otherIsbns != null) {
+            otherIsbns = Arrays.copyOf(otherIsbns, capacity);
+        }
+        if (borrowers != null) {
+            borrowers = Arrays.copyOf(borrowers, capacity);
+        }
+
+        table = new int[tableCapacityFor(capacity)];
+        for (int row = 0; row < size; row++) {
+            table[findSlot(isbnKeys[row], isbnAt(row))] = row + 1;
+        }
+    }
+
+    /**
+     * Наименьшая степень двойки, при которой таблица заполнена не больше чем на две трети.
+     * Вспомогательный метод
+     */
+    private static int tableCapacityFor(int capacity) {
+        long needed = (long) capacity * 3 / 2 + 1;
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    /**
+     * Словарь строк: каждая различная строка хранится один раз и получает номер.
+     * null получает номер -1 и в словарь не попадает.
+     */
+    private static final class StringDictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private int id(String value) {
+            if (value == null) {
+                return NO_VALUE;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        private String value(int id) {
+            return id == NO_VALUE ? null : values.get(id);
+        }
+
+        /**
+         * Номера всех строк, совпадающих с value без учёта регистра и пробелов по краям.
+         */
+        private BitSet idsMatching(String value) {
+            String normalized = BookIndex.normalize(value);
+            BitSet matching = new BitSet(values.size());
+            for (int id = 0; id < values.size(); id++) {
+                if (BookIndex.normalize(values.get(id)).equals(normalized)) {
+                    matching.set(id);
+                }
+            }
+            return matching;
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private void clear() {
+            ids.clear();
+            values.clear();
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Таблица книг по ISBN, в которой ISBN из 13 цифр хранятся как упакованное число long.
+ * Такие ключи лежат в массиве long[] с открытой адресацией (линейное пробирование), а книги - в параллельном
+ * массиве Book[]: на книгу не создаётся ни узел HashMap, ни отдельный объект ключа, а поиск не вычисляет
+ * хеш строки. ISBN с буквами в long не помещаются и хранятся в обычной HashMap.
+ * <p>
+ * Ключи при обходе создаются заново из чисел, поэтому обход значений через {@link #values()} дешевле
+ * обхода ключей. Удаление через итераторы не поддерживается.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+final class CompactIsbnMap extends AbstractMap<String, Book> {
+    private static final int ISBN_LENGTH = 13;
+    private static final int MIN_CAPACITY = 16;
+    static final long NOT_PACKED = -1;
+
+    private long[] keys;
+    private Book[] values;
+    private int packedSize;
+    private int threshold;
+    private final Map<String, Book> unpacked = new HashMap<>();
+
+    /**
+     * Создаёт пустую таблицу.
+     */
+    CompactIsbnMap() {
+        this(0);
+    }
+
+    /**
+     * Создаёт пустую таблицу, в которую можно добавить expectedSize книг без перестроения.
+     *
+     * @param expectedSize ожидаемое количество книг
+     */
+    CompactIsbnMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Создаёт таблицу с книгами из books.
+     *
+     * @param books книги (ключ - ISBN)
+     */
+    CompactIsbnMap(Map<String, Book> books) {
+        this(books.size());
+        putAll(books);
+    }
+
+    /**
+     * Упаковывает ISBN из 13 цифр в число.
+     *
+     * @param key ключ таблицы
+     * @return число от 0 до 9999999999999 или -1, если ключ не строка из 13 цифр
+     */
+    static long pack(Object key) {
+        if (!(key instanceof String isbn) || isbn.length() != ISBN_LENGTH) {
+            return NOT_PACKED;
+        }
+        long packed = 0;
+        for (int i = 0; i < ISBN_LENGTH; i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_PACKED;
+            }
+            packed = packed * 10 + (c - '0');
+        }
+        return packed;
+    }
+
+    /**
+     * @param packed число, полученное методом {@link #pack(Object)}
+     * @return String - ISBN из 13 цифр, включая ведущие нули
+     */
+    static String unpack(long packed) {
+        char[] digits = new char[ISBN_LENGTH];
+        for (int i = ISBN_LENGTH - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + packed % 10);
+            packed /= 10;
+        }
+        return new String(digits);
+    }
+
+    @Override
+    public Book get(Object key) {
+        long packed = pack(key);
+        if (packed == NOT_PACKED) {
+            return unpacked.get(key);
+        }
+        int slot = find(packed);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        long packed = pack(key);
+        if (packed == NOT_PACKED) {
+            return unpacked.containsKey(key);
+        }
+        return find(packed) >= 0;
+    }
+
+    /**
+     * @throws NullPointerException если book null
+     */
+    @Override
+    public Book put(String isbn, Book book) {
+        Objects.requireNonNull(book, "Book must not be null.");
+        long packed = pack(isbn);
+        if (packed == NOT_PACKED) {
+            return unpacked.put(isbn, book);
+        }
+
+        int mask = keys.length - 1;
+        int slot = mix(packed) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == packed) {
+                Book previous = values[slot];
+                values[slot] = book;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = packed;
+        values[slot] = book;
+        if (++packedSize > threshold) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    @Override
+    public Book remove(Object key) {
+        long packed = pack(key);
+        if (packed == NOT_PACKED) {
+            return unpacked.remove(key);
+        }
+        int slot = find(packed);
+        if (slot < 0) {
+            return null;
+        }
+        Book removed = values[slot];
+        deleteSlot(slot);
+        packedSize--;
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return packedSize + unpacked.size();
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        packedSize = 0;
+        unpacked.clear();
+    }
+
+    @Override
+    public Collection<Book> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Book> iterator() {
+                return new SlotIterator<>(slot -> values[slot], unpacked.values().iterator());
+            }
+
+            @Override
+            public int size() {
+                return CompactIsbnMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, Book>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Book>> iterator() {
+                return new SlotIterator<>(slot -> new SimpleImmutableEntry<>(unpack(keys[slot]), values[slot]),
+                        unpacked.entrySet().iterator());
+            }
+
+            @Override
+            public int size() {
+                return CompactIsbnMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Вспомогательный метод
+     *
+     * @return номер ячейки с ключом или -1, если ключа нет
+     */
+    private int find(long packed) {
+        int mask = keys.length - 1;
+        int slot = mix(packed) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == packed) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Удаляет ячейку со сдвигом следующих ключей назад, чтобы цепочки пробирования не разрывались
+     * и не требовались метки удалённых ключей.
+     * Вспомогательный метод
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                break;
+            }
+            int home = mix(keys[next]) & mask;
+            boolean homeBetweenHoleAndNext = hole <= next
+                    ? home > hole && home <= next
+                    : home > hole || home <= next;
+            if (!homeBetweenHoleAndNext) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        values[hole] = null;
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Book[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Book[capacity];
+        threshold = capacity / 3 * 2;
+    }
+
+    /**
+     * Наименьшая степень двойки, при которой таблица заполнена не больше чем на две трети.
+     * Вспомогательный метод
+     */
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 3 / 2 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    /**
+     * Перемешивает биты числа, чтобы соседние ISBN попадали в разные части таблицы.
+     * Используется также таблицей ISBN в {@link ColumnarLibrary}.
+     */
+    static int mix(long packed) {
+        long h = packed * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Обходит занятые ячейки массива, затем ключи с буквами.
+     */
+    private final class SlotIterator<T> implements Iterator<T> {
+        private final IntFunction<T> atSlot;
+        private final Iterator<? extends T> rest;
+        private int slot = -1;
+
+        private SlotIterator(IntFunction<T> atSlot, Iterator<? extends T> rest) {
+            this.atSlot = atSlot;
+            this.rest = rest;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < values.length || rest.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (slot < values.length) {
+                T current = atSlot.apply(slot);
+                advance();
+                return current;
+            }
+            return rest.next();
+        }
+
+        private void advance() {
+            do {
+                slot++;
+            } while (slot < values.length && values[slot] == null);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookAlreadyExistsException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.util.BookValidator;
+import com.github.anastasiiasmotritskaya.javacore.util.LibraryValidator;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Потокобезопасная библиотека книг на основе ConcurrentHashMap.
+ * Чтение не блокируется, а изменения книг с разными ISBN не конкурируют между собой:
+ * добавление и удаление выполняются атомарно через compute для конкретного ISBN,
+ * вместе с обновлением вторичных индексов.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+public class ConcurrentLibrary {
+
+    private volatile Catalog catalog;
+
+    /**
+     * Создаёт новую пустую библиотеку.
+     */
+    public ConcurrentLibrary() {
+        this.catalog = new Catalog(Map.of());
+    }
+
+    /**
+     * Создаёт новую библиотеку с указанным списком книг.
+     *
+     * @param books список книг (может быть пустым, ключ - ISBN)
+     */
+    public ConcurrentLibrary(Map<String, Book> books) {
+        this.catalog = new Catalog(books);
+    }
+
+    /**
+     * Добавляет книгу в библиотеку.
+     *
+     * @param book книга для добавления (не может быть null)
+     * @throws BookAlreadyExistsException если книга с таким ISBN уже существует в библиотеке
+     */
+    public void addBook(Book book) {
+        Catalog current = catalog;
+        current.books.compute(book.getIsbn(), (isbn, existing) -> {
+            if (existing != null) {
+                throw new BookAlreadyExistsException(isbn);
+            }
+            current.index.add(isbn, book);
+            return book;
+        });
+    }
+
+    /**
+     * Удаляет книгу из бибилиотеки.
+     *
+     * @param isbn книга для удаления (проходит валидацию)
+     * @throws BookNotFoundException если книги с таким ISBN в библиотеке нет
+     */
+    public void deleteBook(String isbn) {
+        BookValidator.validateIsbn(isbn);
+        Catalog current = catalog;
+        current.books.compute(isbn, (key, existing) -> {
+            if (existing == null) {
+                throw new BookNotFoundException(key);
+            }
+            current.index.remove(key, existing);
+            return null;
+        });
+    }
+
+    /**
+     * Поиск книги в библиотеке по ISBN.
+     *
+     * @param isbn книга для поиска (проходит валидацию)
+     * @return Book - книгу с введенным ISBN
+     * @throws BookNotFoundException если книги с таким ISBN в библиотеке нет
+     */
+    public Book findBookByISBN(String isbn) {
+        BookValidator.validateIsbn(isbn);
+        Book book = catalog.books.get(isbn);
+        if (book == null) {
+            throw new BookNotFoundException(isbn);
+        }
+        return book;
+    }
+
+    /**
+     * Поиск книги в библиотеке по автору.
+     *
+     * @param author автор, чьи книги необходимо найти (проходит валидацию)
+     * @return List - список книг данного автора
+     * Если книг этого автора в библиотеке нет, возвращает пустой список
+     */
+    public List<Book> findBookByAuthor(String author) {
+        BookValidator.validateAuthor(author);
+        Catalog current = catalog;
+        return current.getBooksByIsbns(current.index.findIsbnsByAuthor(author));
+    }
+
+    /**
+     * Поиск книги в библиотеке по названию.
+     *
+     * @param title навзание книги, которую необходимо найти в библиотеке (проходит валидацию)
+     * @return List - список книг с введенным названием
+     * Если книг с таким названием в библиотеке нет, возвращает пустой список
+     */
+    public List<Book> findBookByTitle(String title) {
+        BookValidator.validateTitle(title);
+        Catalog current = catalog;
+        return current.getBooksByIsbns(current.index.findIsbnsByTitle(title));
+    }
+
+    /**
+     * Ищет книги, изданные в указанный период
+     *
+     * @param fromYear начальный год (включительно)
+     * @param toYear   конечный год (включительно)
+     * @return List книги, удовлетворяющие условию
+     * @throws IllegalArgumentException если введенные годы издания меньше 1457 или больше текущего
+     *                                  или если конечный год меньше начального года
+     */
+    public List<Book> findBooksByYearRange(int fromYear, int toYear) {
+        BookValidator.validateYear(fromYear);
+        BookValidator.validateYear(toYear);
+        LibraryValidator.validateYearRange(fromYear, toYear);
+
+        Catalog current = catalog;
+        List<Book> booksByYearRange = new ArrayList<>();
+        for (Set<String> isbns : current.index.findIsbnsByYearRange(fromYear, toYear)) {
+            booksByYearRange.addAll(current.getBooksByIsbns(isbns));
+        }
+        return booksByYearRange;
+    }
+
+    /**
+     * Удаляет все книги указанного автора.
+     *
+     * @param author автор, книги которого нужно удалить (не может быть null или пустым)
+     * @return количество книг, удаленных этим вызовом (книги, удаленные параллельно другим потоком, не учитываются)
+     * @throws IllegalArgumentException если author равен null или пустой строке
+     */
+    public int removeBooksByAuthor(String author) {
+        BookValidator.validateAuthor(author);
+        Catalog current = catalog;
+        int[] count = new int[1];
+        for (String isbn : new ArrayList<>(current.index.findIsbnsByAuthor(author))) {
+            current.books.computeIfPresent(isbn, (key, existing) -> {
+                current.index.remove(key, existing);
+                count[0]++;
+                return null;
+            });
+        }
+        return count[0];
+    }
+
+    /**
+     * Возвращает список всех книг в библиотеке.
+     *
+     * @return Map - копия списка всех книг в библиотеке на момент вызова
+     */
+    public Map<String, Book> getAllBooks() {
+        return Map.copyOf(catalog.books);
+    }
+
+    /**
+     * Загружает библиотеку из файла в формате json и заменяет ею текущий каталог целиком.
+     * Читатели до окончания загрузки видят прежний каталог.
+     * Изменения, выполненные параллельно с загрузкой, относятся к прежнему каталогу и будут потеряны.
+     *
+     * @param filePath путь, по которому находится файл в формате json
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файл не удалось прочитать (см. {@link Library#loadFromJsonFile(String)})
+     */
+    public void loadFromJsonFile(String filePath) {
+        this.catalog = new Catalog(Library.readJsonFile(filePath, null));
+    }
+
+    /**
+     * Книги и индексы, которые заменяются вместе при загрузке из файла.
+     */
+    private static final class Catalog {
+        private final ConcurrentMap<String, Book> books;
+        private final BookIndex index = BookIndex.concurrent();
+
+        private Catalog(Map<String, Book> books) {
+            this.books = new ConcurrentHashMap<>(books);
+            for (Map.Entry<String, Book> entry : this.books.entrySet()) {
+                index.add(entry.getKey(), entry.getValue());
+            }
+        }
+
+        /**
+         * Книга могла быть удалена после чтения индекса, такие ISBN пропускаются.
+         */
+        private List<Book> getBooksByIsbns(Set<String> isbns) {
+            List<Book> found = new ArrayList<>();
+            for (String isbn : isbns) {
+                Book book = books.get(isbn);
+                if (book != null) {
+                    found.add(book);
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.anastasiiasmotritskaya.javacore.oop;
 
+import java.io.IOException;
+
 /**
  * Представляет книгу в жанре художественная литература литература в библиотечной системе.
  * Дополнительное поле: жанр
@@ -41,12 +43,27 @@ public class FictionBook extends Book {
         this.genre = genre.trim();
     }
 
+    /**
+     * Заполняет жанр без валидации, как при десериализации json.
+     * Используется при чтении двоичного каталога.
+     */
+    void restoreGenre(String genre) {
+        this.genre = genre;
+    }
+
     private void validateGenre(String genre) {
         if (genre == null || genre.trim().isEmpty()) {
             throw new IllegalArgumentException("The genre field must not be null or empty. Enter the genre.");
         }
     }
 
+    @Override
+    void writeBasicInfo(Appendable out) throws IOException {
+        out.append("Fiction: ").append(getTitle())
+                .append(", genre: ").append(genre)
+                .append(System.lineSeparator());
+    }
+
     @Override
     public String toString() {
         return "FictionBook{" +
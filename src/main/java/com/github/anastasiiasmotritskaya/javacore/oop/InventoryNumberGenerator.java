@@ -0,0 +1,51 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор инвентарных номеров объектов библиотеки.
+ * Все стандартные генераторы возвращают номера в формате UUID (36 символов).
+ * secureRandom - случайный UUID через SecureRandom (по умолчанию)
+ * fastRandom - случайный UUID через ThreadLocalRandom, без блокировок и без криптостойкости
+ * sequential - последовательные номера 00000000-0000-0000-0000-000000000001, 00000000-0000-0000-0000-000000000002 и т.д.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ * @see LibraryItem#setInventoryNumberGenerator(InventoryNumberGenerator)
+ */
+@FunctionalInterface
+public interface InventoryNumberGenerator {
+    /**
+     * @return String - новый инвентарный номер (не может быть null)
+     */
+    String next();
+
+    /**
+     * @return InventoryNumberGenerator - генератор случайных UUID через SecureRandom
+     */
+    static InventoryNumberGenerator secureRandom() {
+        return () -> UUID.randomUUID().toString();
+    }
+
+    /**
+     * @return InventoryNumberGenerator - генератор случайных UUID версии 4 через ThreadLocalRandom
+     */
+    static InventoryNumberGenerator fastRandom() {
+        return () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+            long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+            return new UUID(mostSigBits, leastSigBits).toString();
+        };
+    }
+
+    /**
+     * @return InventoryNumberGenerator - новый генератор последовательных номеров, начиная с 1
+     */
+    static InventoryNumberGenerator sequential() {
+        AtomicLong counter = new AtomicLong();
+        return () -> new UUID(0, counter.incrementAndGet()).toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+/**
+ * Формат сохранения библиотеки в json файл.
+ * PRETTY - json с отступами и переводами строк, удобен для чтения человеком
+ * COMPACT - json без пробелов и переводов строк, занимает меньше места и записывается быстрее
+ */
+public enum JsonSaveMode {
+    PRETTY,
+    COMPACT
+}
@@ -1,21 +1,56 @@
 package com.github.anastasiiasmotritskaya.javacore.oop;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import com.github.anastasiiasmotritskaya.javacore.exceptions.BookAlreadyExistsException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotAvailableException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotBorrowedException;
 import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
 import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
 import com.github.anastasiiasmotritskaya.javacore.util.*;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Представляет библиотеку книг с возможностью поиска, добавления, удаления,
@@ -27,18 +62,71 @@ import java.util.*;
 public class Library {
 
     private Map<String, Book> books;
+    private final boolean compactIsbnKeys;
+    private long generation;
+    private Map<String, Book> snapshot;
+    private final Map<String, Book> booksView = new AbstractMap<>() {
+        @Override
+        public Book get(Object isbn) {
+            return books.get(isbn);
+        }
+
+        @Override
+        public boolean containsKey(Object isbn) {
+            return books.containsKey(isbn);
+        }
+
+        @Override
+        public int size() {
+            return books.size();
+        }
+
+        @Override
+        public Collection<Book> values() {
+            return Collections.unmodifiableCollection(books.values());
+        }
+
+        @Override
+        public Set<Entry<String, Book>> entrySet() {
+            return Collections.unmodifiableMap(books).entrySet();
+        }
+    };
+    private final BookIndex index = new BookIndex();
+    private final Map<SortOrder, SortedView> sortedViews = new EnumMap<>(SortOrder.class);
+    private final AtomicIntegerArray statusCounts = new AtomicIntegerArray(BookStatus.values().length + 1);
+    private final ConcurrentMap<String, Integer> authorCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger booksWithoutAuthor = new AtomicInteger();
+    private final StatusHook statusListener = new StatusHook(this);
+    private volatile LibraryJournal journal;
+    private String snapshotPath;
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_SHARDS = 9999;
+    private static final int TITLE_MATCH_SCORE = 2;
+    private static final int AUTHOR_MATCH_SCORE = 1;
+    private static final int PARALLEL_VALIDATION_THRESHOLD = 10_000;
+    private static final int PARALLEL_SCAN_THRESHOLD = 10_000;
+    private static final int SORTED_VIEW_BATCH_LIMIT = 1_000;
+    private static final String SHARD_FILE_FORMAT = "shard-%04d-of-%04d.json";
+    private static final Pattern SHARD_FILE_PATTERN = Pattern.compile("shard-(\\d{4})-of-(\\d{4})\\.json");
 
     static {
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
     }
 
+    private static final ObjectWriter prettyWriter = mapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private static final ObjectWriter compactWriter = mapper.writer()
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
     /**
      * Создаёт новую пустую библиотеку.
      *
      */
     public Library() {
         this.books = new HashMap<>();
+        this.compactIsbnKeys = false;
     }
 
     /**
@@ -48,6 +136,29 @@ public class Library {
      */
     public Library(Map<String, Book> books) {
         this.books = new HashMap<>(books);
+        this.compactIsbnKeys = false;
+        rebuildIndex();
+    }
+
+    /**
+     * Вспомогательный конструктор для {@link #withCompactIsbnKeys()}
+     */
+    private Library(boolean compactIsbnKeys) {
+        this.books = compactIsbnKeys ? new CompactIsbnMap() : new HashMap<>();
+        this.compactIsbnKeys = compactIsbnKeys;
+    }
+
+    /**
+     * Создаёт новую пустую библиотеку, которая хранит ISBN из 13 цифр как числа long
+     * в таблице с открытой адресацией вместо HashMap со строковыми ключами.
+     * Для больших каталогов с цифровыми ISBN это заметно уменьшает расход памяти на книгу
+     * и ускоряет поиск по ISBN. ISBN с буквами тоже поддерживаются, но хранятся как обычно.
+     * Порядок книг при обходе и сохранении в файл отличается от обычной библиотеки.
+     *
+     * @return Library - пустая библиотека
+     */
+    public static Library withCompactIsbnKeys() {
+        return new Library(true);
     }
 
     /**
@@ -60,7 +171,75 @@ public class Library {
         if (books.containsKey(book.getIsbn())) {
             throw new BookAlreadyExistsException(book.getIsbn());
         }
+        if (journal != null) {
+            journal.bookAdded(book);
+        }
         books.put(book.getIsbn(), book);
+        indexBook(book.getIsbn(), book);
+    }
+
+    /**
+     * Добавляет в библиотеку пакет книг, например при ночной загрузке каталога.
+     * В отличие от {@link #addBook(Book)}, поля каждой книги проходят валидацию (книги могли быть
+     * прочитаны из файла без конструктора). Большие пакеты проверяются параллельно.
+     * Повторы ISBN ищутся за один проход, и обо всех конфликтах сообщается сразу.
+     * Книги добавляются по принципу "всё или ничего": при любой ошибке библиотека не меняется.
+     *
+     * @param newBooks книги для добавления (не может быть null)
+     * @throws IllegalArgumentException   если newBooks null, содержит null или книгу с невалидными полями
+     * @throws BookAlreadyExistsException если ISBN уже есть в библиотеке или повторяется в пакете,
+     *                                    список всех таких ISBN - в {@link BookAlreadyExistsException#getIsbns()}
+     */
+    public void addBooks(Collection<Book> newBooks) {
+        if (newBooks == null) {
+            throw new IllegalArgumentException("Books must not be null.");
+        }
+        List<Book> batch = new ArrayList<>(newBooks);
+        validateBooks(batch);
+
+        Map<String, Book> added = HashMap.newHashMap(batch.size());
+        List<String> conflicts = new ArrayList<>();
+        for (Book book : batch) {
+            if (books.containsKey(book.getIsbn()) || added.putIfAbsent(book.getIsbn(), book) != null) {
+                conflicts.add(book.getIsbn());
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new BookAlreadyExistsException(conflicts);
+        }
+
+        if (added.size() >= books.size()) {
+            Map<String, Book> resized = compactIsbnKeys
+                    ? new CompactIsbnMap(books.size() + added.size())
+                    : HashMap.newHashMap(books.size() + added.size());
+            resized.putAll(books);
+            books = resized;
+        }
+        if (!added.isEmpty()) {
+            sortedViews.clear();
+        }
+        for (Book book : batch) {
+            if (journal != null) {
+                journal.bookAdded(book);
+            }
+            books.put(book.getIsbn(), book);
+            indexBook(book.getIsbn(), book);
+        }
+    }
+
+    /**
+     * Добавляет в библиотеку книги из потока.
+     * Поток читается целиком до изменения библиотеки, см. {@link #addBooks(Collection)}.
+     *
+     * @param newBooks книги для добавления (не может быть null)
+     * @throws IllegalArgumentException   если newBooks null, содержит null или книгу с невалидными полями
+     * @throws BookAlreadyExistsException если ISBN уже есть в библиотеке или повторяется в потоке
+     */
+    public void addBooks(Stream<Book> newBooks) {
+        if (newBooks == null) {
+            throw new IllegalArgumentException("Books must not be null.");
+        }
+        addBooks(newBooks.toList());
     }
 
     /**
@@ -74,7 +253,37 @@ public class Library {
         if (!books.containsKey(isbn)) {
             throw new BookNotFoundException(isbn);
         }
-        books.remove(isbn);
+        if (journal != null) {
+            journal.bookDeleted(isbn);
+        }
+        unindexBook(isbn, books.remove(isbn));
+    }
+
+    /**
+     * Выдаёт книгу читателю. Если открыт журнал, изменение записывается в него до выдачи,
+     * так же как при вызове {@link Book#borrow(String)} напрямую.
+     *
+     * @param isbn         ISBN книги (проходит валидацию)
+     * @param borrowerName имя читателя
+     * @throws BookNotFoundException     если книги с таким ISBN в библиотеке нет
+     * @throws BookNotAvailableException если книга уже выдана или забронирована
+     * @see Book#borrow(String)
+     */
+    public void borrowBook(String isbn, String borrowerName) {
+        findBookByISBN(isbn).borrow(borrowerName);
+    }
+
+    /**
+     * Возвращает книгу в библиотеку. Если открыт журнал, изменение записывается в него до возврата,
+     * так же как при вызове {@link Book#returnBook()} напрямую.
+     *
+     * @param isbn ISBN книги (проходит валидацию)
+     * @throws BookNotFoundException    если книги с таким ISBN в библиотеке нет
+     * @throws BookNotBorrowedException если книга не была выдана
+     * @see Book#returnBook()
+     */
+    public void returnBook(String isbn) {
+        findBookByISBN(isbn).returnBook();
     }
 
     /**
@@ -86,14 +295,16 @@ public class Library {
      */
     public Book findBookByISBN(String isbn) {
         BookValidator.validateIsbn(isbn);
-        if (!books.containsKey(isbn)) {
+        Book book = books.get(isbn);
+        if (book == null) {
             throw new BookNotFoundException(isbn);
         }
-        return books.get(isbn);
+        return book;
     }
 
     /**
      * Поиск книги в библиотеке по автору.
+     * Использует индекс авторов, поэтому время поиска зависит от количества найденных книг, а не от размера библиотеки.
      *
      * @param author автор, чьи книги необходимо найти (проходит валидацию)
      * @return List - список книг данного автора
@@ -101,17 +312,12 @@ public class Library {
      */
     public List<Book> findBookByAuthor(String author) {
         BookValidator.validateAuthor(author);
-        List<Book> thisAuthorWrittenBooks = new ArrayList<>();
-        for (Map.Entry<String, Book> book : books.entrySet()) {
-            if (book.getValue().getAuthor().equalsIgnoreCase(author)) {
-                thisAuthorWrittenBooks.add(book.getValue());
-            }
-        }
-        return thisAuthorWrittenBooks;
+        return getBooksByIsbns(index.findIsbnsByAuthor(author));
     }
 
     /**
      * Поиск книги в библиотеке по названию.
+     * Использует индекс названий.
      *
      * @param title навзание книги, которую необходимо найти в библиотеке (проходит валидацию)
      * @return List - список книг с введенным названием
@@ -119,33 +325,158 @@ public class Library {
      */
     public List<Book> findBookByTitle(String title) {
         BookValidator.validateTitle(title);
-        List<Book> thisTitleBooks = new ArrayList<>();
-        for (Map.Entry<String, Book> book : books.entrySet()) {
-            if (book.getValue().getTitle().equalsIgnoreCase(title)) {
-                thisTitleBooks.add(book.getValue());
+        return getBooksByIsbns(index.findIsbnsByTitle(title));
+    }
+
+    /**
+     * Поиск книг по началу слова в названии или имени автора, например "wuth" найдёт "Wuthering Heights".
+     * Если в запросе несколько слов, все слова кроме последнего должны совпадать полностью,
+     * а последнее считается началом слова, как в строке поиска.
+     * Книги упорядочены по найденному слову: сначала совпадения в названиях, затем в именах авторов.
+     * Поиск останавливается, как только найдено limit книг.
+     *
+     * @param query строка поиска (регистр не важен)
+     * @param limit максимальное количество книг в ответе (больше 0)
+     * @return List - найденные книги, не больше limit
+     * @throws IllegalArgumentException если query null или пустая или limit меньше или равен 0
+     */
+    public List<Book> searchByPrefix(String query, int limit) {
+        validateSearch(query, limit);
+        List<String> tokens = BookIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> candidates = tokens.size() > 1 ? findIsbnsByAllTokens(tokens.subList(0, tokens.size() - 1)) : null;
+        Set<String> found = new LinkedHashSet<>();
+        Iterator<Set<String>> groups = index.findIsbnsByTokenPrefix(tokens.get(tokens.size() - 1)).iterator();
+
+        while (groups.hasNext() && found.size() < limit) {
+            for (String isbn : groups.next()) {
+                if (candidates == null || candidates.contains(isbn)) {
+                    found.add(isbn);
+                    if (found.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return getBooksByIsbns(found);
+    }
+
+    /**
+     * Поиск книг, в названии или имени автора которых есть все слова запроса.
+     * Слова сравниваются целиком и без учёта регистра, порядок слов не важен.
+     *
+     * @param query слова через пробел или знаки препинания
+     * @return List - найденные книги, порядок не гарантирован
+     * @throws IllegalArgumentException если query null или пустая
+     */
+    public List<Book> searchAllTerms(String query) {
+        validateSearch(query, 1);
+        List<String> tokens = BookIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getBooksByIsbns(findIsbnsByAllTokens(tokens));
+    }
+
+    /**
+     * Поиск книг, в которых есть хотя бы одно слово запроса, упорядоченный по релевантности.
+     * За каждое слово запроса в названии книга получает 2 балла, в имени автора - 1 балл.
+     * Книги с одинаковым количеством баллов упорядочены по ISBN.
+     *
+     * @param query слова через пробел или знаки препинания
+     * @param limit максимальное количество книг в ответе (больше 0)
+     * @return List - найденные книги от более релевантных к менее релевантным, не больше limit
+     * @throws IllegalArgumentException если query null или пустая или limit меньше или равен 0
+     */
+    public List<Book> searchRanked(String query, int limit) {
+        validateSearch(query, limit);
+
+        Map<String, Integer> scores = new HashMap<>();
+        for (String token : BookIndex.tokenize(query)) {
+            for (String isbn : index.findIsbnsByTitleToken(token)) {
+                scores.merge(isbn, TITLE_MATCH_SCORE, Integer::sum);
+            }
+            for (String isbn : index.findIsbnsByAuthorToken(token)) {
+                scores.merge(isbn, AUTHOR_MATCH_SCORE, Integer::sum);
             }
         }
-        return thisTitleBooks;
+
+        List<Map.Entry<String, Integer>> ranked = selectTop(scores.entrySet().stream(),
+                Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()), limit);
+
+        List<Book> found = new ArrayList<>(ranked.size());
+        for (Map.Entry<String, Integer> entry : ranked) {
+            found.add(books.get(entry.getKey()));
+        }
+        return found;
     }
 
     /**
      * Возвращает список всех книг в библиотеке.
+     * Результат - неизменяемый снимок: последующие изменения библиотеки на него не влияют.
+     * Снимок копируется один раз после каждого изменения состава библиотеки, повторные вызовы
+     * без изменений возвращают тот же снимок за O(1). Сами книги не копируются,
+     * поэтому выдача и возврат книг видны и через снимок.
      *
      * @return Map - список всех книг в библиотеке
      * Если книг с таким названием в библиотеке нет, возвращает пустой список
+     * @see #getGeneration()
      */
     public Map<String, Book> getAllBooks() {
-        return Map.copyOf(books);
+        Map<String, Book> current = snapshot;
+        if (current == null) {
+            current = Map.copyOf(books);
+            snapshot = current;
+        }
+        return current;
     }
 
     /**
-     * Сохраняет библиотеку в существующий файл в формате json
+     * Возвращает представление книг библиотеки только для чтения, без копирования.
+     * Представление всегда показывает текущий состав библиотеки, в том числе после загрузки из файла.
+     * Попытка изменить представление выбрасывает UnsupportedOperationException.
+     * Пока библиотека изменяется, представление нельзя обходить.
+     *
+     * @return Map - представление книг библиотеки (ключ - ISBN)
+     */
+    public Map<String, Book> getBooksView() {
+        return booksView;
+    }
+
+    /**
+     * Возвращает номер поколения библиотеки, который увеличивается при каждом добавлении, удалении
+     * и загрузке книг. По нему можно проверить, изменилась ли библиотека с момента получения снимка
+     * {@link #getAllBooks()}, не сравнивая книги.
+     *
+     * @return long - номер текущего поколения
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Сохраняет библиотеку в существующий файл в формате json с отступами
      *
      * @param filePath путь, по которому находится файл, в котором нужно сохранить библиотеку
      * @throws IllegalArgumentException если filePath null или empty
      * @throws LibraryFileException     если файл по данному пути не существует
      */
     public void saveToExistingJsonFile(String filePath) {
+        saveToExistingJsonFile(filePath, JsonSaveMode.PRETTY);
+    }
+
+    /**
+     * Сохраняет библиотеку в существующий файл в формате json
+     *
+     * @param filePath путь, по которому находится файл, в котором нужно сохранить библиотеку
+     * @param mode     формат json: с отступами или компактный
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файл по данному пути не существует
+     */
+    public void saveToExistingJsonFile(String filePath, JsonSaveMode mode) {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("File path must not be null or empty.");
         }
@@ -157,20 +488,32 @@ public class Library {
         }
 
         try {
-            mapper.writeValue(file, books);
+            writeBooks(books, file.toPath(), mode, 0, false);
         } catch (IOException e) {
             throw new LibraryFileException("Failed to write to file: " + filePath, e);
         }
     }
 
     /**
-     * Сохраняет библиотеку в новый файл в формате json
+     * Сохраняет библиотеку в новый файл в формате json с отступами
      *
      * @param filePath путь, по которому следует создать новый файл, в котором следует сохранить библиотеку
      * @throws IllegalArgumentException если filePath null или empty
      * @throws LibraryFileException     если файл по данному пути уже существует
      */
     public void saveToNewJsonFile(String filePath) {
+        saveToNewJsonFile(filePath, JsonSaveMode.PRETTY);
+    }
+
+    /**
+     * Сохраняет библиотеку в новый файл в формате json
+     *
+     * @param filePath путь, по которому следует создать новый файл, в котором следует сохранить библиотеку
+     * @param mode     формат json: с отступами или компактный
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файл по данному пути уже существует
+     */
+    public void saveToNewJsonFile(String filePath, JsonSaveMode mode) {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("File path must not be null or empty.");
         }
@@ -185,14 +528,62 @@ public class Library {
 
         try {
             Files.createDirectories(path.getParent());
-            mapper.writeValue(file, books);
+            writeBooks(books, path, mode, 0, false);
+        } catch (IOException e) {
+            throw new LibraryFileException("Failed to write to file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Атомарно сохраняет библиотеку в файл в формате json с отступами, без ограничения скорости записи.
+     *
+     * @param filePath путь к файлу (файл может существовать, тогда он будет заменён)
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если не удалось записать или переместить файл
+     * @see #saveToJsonFileAtomically(String, JsonSaveMode, long)
+     */
+    public void saveToJsonFileAtomically(String filePath) {
+        saveToJsonFileAtomically(filePath, JsonSaveMode.PRETTY, 0);
+    }
+
+    /**
+     * Атомарно сохраняет библиотеку в файл в формате json.
+     * Библиотека записывается во временный файл в той же папке, данные сбрасываются на диск
+     * через FileChannel.force, после чего временный файл переименовывается в целевой с ATOMIC_MOVE.
+     * Поэтому при сбое во время записи на диске остаётся либо прежний файл целиком, либо новый целиком.
+     *
+     * @param filePath          путь к файлу (файл может существовать, тогда он будет заменён)
+     * @param mode              формат json: с отступами или компактный
+     * @param maxBytesPerSecond ограничение скорости записи в байтах в секунду, 0 - без ограничения
+     * @throws IllegalArgumentException если filePath null или empty или maxBytesPerSecond меньше 0
+     * @throws LibraryFileException     если не удалось записать или переместить файл
+     */
+    public void saveToJsonFileAtomically(String filePath, JsonSaveMode mode, long maxBytesPerSecond) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path must not be null or empty.");
+        }
+        if (maxBytesPerSecond < 0) {
+            throw new IllegalArgumentException("Max bytes per second must not be negative. Got: " + maxBytesPerSecond);
+        }
+
+        Path path = new File(filePath.trim()).toPath().toAbsolutePath();
+        Path directory = path.getParent();
+        Path tempPath = null;
+
+        try {
+            Files.createDirectories(directory);
+            tempPath = createTempFileFor(path);
+            writeBooks(books, tempPath, mode, maxBytesPerSecond, true);
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(directory);
         } catch (IOException e) {
+            deleteQuietly(tempPath);
             throw new LibraryFileException("Failed to write to file: " + filePath, e);
         }
     }
 
     /**
-     * Сохраняет библиотеку из файла в формате json
+     * Загружает библиотеку из файла в формате json
      *
      * @param filePath путь, по которому которому находится файл в формате json, откуда следует загрузить бибилиотеку
      * @throws IllegalArgumentException если filePath null или empty
@@ -203,6 +594,40 @@ public class Library {
      *                                  поля не совпадают (title, author, year, isbn)
      */
     public void loadFromJsonFile(String filePath) {
+        loadFromJsonFile(filePath, null);
+    }
+
+    /**
+     * Загружает библиотеку из файла в формате json, читая его потоково: книги разбираются по одной
+     * и сразу попадают в новый каталог, поэтому пиковое потребление памяти близко к размеру итогового каталога.
+     * Текущий каталог заменяется только после успешного чтения всего файла.
+     * Если открыт журнал, загруженный каталог сохраняется как новый снимок, а журнал очищается (см. {@link #compactJournal()}).
+     *
+     * @param filePath         путь, по которому которому находится файл в формате json, откуда следует загрузить бибилиотеку
+     * @param progressCallback получает количество уже прочитанных книг после каждой книги (может быть null)
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файла по данному пути не существует,
+     *                                  проблема в структуре json,
+     *                                  возникла проблема при чтении,
+     *                                  проблема с синтаксисом json,
+     *                                  поля не совпадают (title, author, year, isbn)
+     */
+    public void loadFromJsonFile(String filePath, LongConsumer progressCallback) {
+        replaceBooks(readJsonFile(filePath, progressCallback));
+    }
+
+    /**
+     * Читает книги из файла в формате json, не создавая библиотеку.
+     * Книги не подписываются на счётчики какой-либо библиотеки, поэтому их можно передавать
+     * в другие хранилища (например, {@link ConcurrentLibrary}), не удерживая временную библиотеку в памяти.
+     *
+     * @param filePath         путь к файлу в формате json
+     * @param progressCallback получает количество уже прочитанных книг после каждой книги (может быть null)
+     * @return Map - прочитанные книги (ключ - ISBN)
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     в тех же случаях, что и {@link #loadFromJsonFile(String)}
+     */
+    static Map<String, Book> readJsonFile(String filePath, LongConsumer progressCallback) {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("File path must not be null or empty.");
         }
@@ -214,151 +639,691 @@ public class Library {
         }
 
         if (file.length() == 0) {
-            this.books = new HashMap<>();
-            return;
+            return new HashMap<>();
         }
-        try {
-            this.books = mapper.readValue(file, new TypeReference<>() {
-            });
-        } catch (JsonParseException e) {
-            throw new LibraryFileException("Invalid JSON syntax: " + filePath, e);
-        } catch (MismatchedInputException e) {
-            throw new LibraryFileException("Invalid book data: " + filePath, e);
+        try (JsonParser parser = mapper.getFactory().createParser(file)) {
+            return readBooks(parser, progressCallback);
         } catch (IOException e) {
-            throw new LibraryFileException("Error reading file: " + filePath, e);
+            throw toLibraryFileException(filePath, e);
         }
     }
 
     /**
-     * Возвращает основную информацию о книгах из разных категорий (Book, TechnicalBook, FictionBook)
+     * Сохраняет библиотеку в несколько json файлов (шардов), которые можно загрузить параллельно.
+     * Книга попадает в шард по хешу ISBN. Файлы называются shard-0000-of-0016.json. Шарды записываются
+     * параллельно во временные файлы и переименовываются только после того, как записаны все, а шарды
+     * из предыдущего сохранения в этой папке удаляются последними. Поэтому при ошибке записи прежние шарды
+     * остаются на диске целиком.
+     *
+     * @param directoryPath путь к папке для шардов (будет создана, если её нет)
+     * @param shardCount    количество шардов (от 1 до 9999)
+     * @param mode          формат json: с отступами или компактный
+     * @throws IllegalArgumentException если directoryPath null или empty или shardCount вне диапазона
+     * @throws LibraryFileException     если не удалось записать шарды
+     * @see #loadFromShardedJsonFiles(String)
      */
-    public String getAllBooksBasicInfo() {
-        StringBuilder booksInfo = new StringBuilder();
-        for (Book book : books.values()) {
-            if (book instanceof FictionBook) {
-                booksInfo.append(String.format("Fiction: %s, genre: %s%n",
-                        book.getTitle(), ((FictionBook) book).getGenre()));
-                continue;
+    public void saveToShardedJsonFiles(String directoryPath, int shardCount, JsonSaveMode mode) {
+        if (directoryPath == null || directoryPath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Directory path must not be null or empty.");
+        }
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS + ". Got: " + shardCount);
+        }
+
+        List<Map<String, Book>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new HashMap<>());
+        }
+        for (Map.Entry<String, Book> entry : books.entrySet()) {
+            shards.get(Math.floorMod(entry.getKey().hashCode(), shardCount)).put(entry.getKey(), entry.getValue());
+        }
+
+        Path directory = new File(directoryPath.trim()).toPath().toAbsolutePath();
+        List<Path> shardPaths = new ArrayList<>(shardCount);
+        Path[] tempPaths = new Path[shardCount];
+        List<Callable<Void>> tasks = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            Map<String, Book> shard = shards.get(i);
+            Path shardPath = directory.resolve(String.format(SHARD_FILE_FORMAT, i, shardCount));
+            shardPaths.add(shardPath);
+            int number = i;
+            tasks.add(() -> {
+                tempPaths[number] = createTempFileFor(shardPath);
+                writeBooks(shard, tempPaths[number], mode, 0, false);
+                return null;
+            });
+        }
+
+        try {
+            Files.createDirectories(directory);
+            List<Path> oldShards = listShards(directory);
+            try {
+                for (Future<Void> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                    getShardResult(future, directoryPath);
+                }
+            } catch (IOException | RuntimeException e) {
+                for (Path tempPath : tempPaths) {
+                    deleteQuietly(tempPath);
+                }
+                throw e;
             }
-            if (book instanceof TechnicalBook) {
-                booksInfo.append(String.format("Technical: %s, subject: %s, difficulty Level: %s%n",
-                        book.getTitle(), ((TechnicalBook) book).getSubject(), ((TechnicalBook) book).getDifficultyLevel()));
-            } else {
-                booksInfo.append(String.format("Book: %s%n", book.getTitle()));
+            for (int i = 0; i < shardCount; i++) {
+                Files.move(tempPaths[i], shardPaths.get(i), StandardCopyOption.ATOMIC_MOVE);
             }
+            for (Path oldShard : oldShards) {
+                if (!shardPaths.contains(oldShard)) {
+                    Files.delete(oldShard);
+                }
+            }
+        } catch (IOException e) {
+            throw new LibraryFileException("Failed to write to file: " + directoryPath, e);
         }
-        return String.valueOf(booksInfo);
     }
 
     /**
-     * Ищет книги, изданные в указанный период
+     * Загружает библиотеку из шардов, сохранённых методом {@link #saveToShardedJsonFiles(String, int, JsonSaveMode)}.
+     * Каждый шард разбирается потоково в отдельной задаче ForkJoinPool, затем результаты объединяются.
+     * Текущий каталог заменяется только после успешного чтения всех шардов.
+     * Если открыт журнал, загруженный каталог сохраняется как новый снимок, а журнал очищается (см. {@link #compactJournal()}).
      *
-     * @param fromYear начальный год (включительно)
-     * @param toYear   конечный год (включительно)
-     * @return List книги, удовлетворяющие условию
-     * @throws IllegalArgumentException если введенные годы издания меньше 1457 или больше текущего
-     *                                  или если конечный год меньше начального года
+     * @param directoryPath путь к папке с шардами
+     * @throws IllegalArgumentException если directoryPath null или empty
+     * @throws LibraryFileException     если папки не существует, в ней нет всех шардов одного сохранения,
+     *                                  или шард не удалось прочитать: ошибки разделяются так же,
+     *                                  как в {@link #loadFromJsonFile(String)}
      */
-    public List<Book> findBooksByYearRange(int fromYear, int toYear) {
-        BookValidator.validateYear(fromYear);
-        BookValidator.validateYear(toYear);
-        LibraryValidator.validateYearRange(fromYear, toYear);
+    public void loadFromShardedJsonFiles(String directoryPath) {
+        if (directoryPath == null || directoryPath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Directory path must not be null or empty.");
+        }
 
-        List<Book> booksByYearRange = new ArrayList<>();
+        File directory = new File(directoryPath.trim());
 
-        for (Book book : books.values()) {
-            if (book.getYear() >= fromYear && book.getYear() <= toYear) {
-                booksByYearRange.add(book);
+        if (!directory.isDirectory()) {
+            throw new LibraryFileException("Directory doesn't exist. Directory path: " + directoryPath);
+        }
+
+        List<Path> shardPaths;
+        try {
+            shardPaths = listShards(directory.toPath());
+        } catch (IOException e) {
+            throw new LibraryFileException("Error reading file: " + directoryPath, e);
+        }
+        checkShardsComplete(shardPaths, directoryPath);
+
+        List<Callable<Map<String, Book>>> tasks = new ArrayList<>(shardPaths.size());
+        for (Path shardPath : shardPaths) {
+            tasks.add(() -> readShard(shardPath));
+        }
+
+        List<Map<String, Book>> shards = new ArrayList<>(shardPaths.size());
+        int total = 0;
+        List<Future<Map<String, Book>>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                Map<String, Book> shard = getShardResult(futures.get(i), String.valueOf(shardPaths.get(i)));
+                shards.add(shard);
+                total += shard.size();
+            } catch (IOException e) {
+                throw toLibraryFileException(String.valueOf(shardPaths.get(i)), e);
             }
         }
-        return booksByYearRange;
+
+        Map<String, Book> loaded = new HashMap<>(Math.max(16, (int) (total / 0.75f) + 1));
+        for (Map<String, Book> shard : shards) {
+            loaded.putAll(shard);
+        }
+        replaceBooks(loaded);
     }
 
     /**
-     * Возвращает множество уникальных авторов в библиотеке
+     * Сохраняет библиотеку в файл в двоичном формате (см. {@link BinaryCatalogFormat}).
+     * Двоичный файл меньше json и читается быстрее, так как не требует разбора текста.
      *
-     * @return Set уникальные имена авторов
+     * @param filePath путь к файлу (файл может существовать, тогда он будет перезаписан)
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файл не удалось записать
      */
-    public Set<String> getAllUniqueAuthors() {
-        Set<String> authors = new HashSet<>();
-        for (Book book : books.values()) {
-            authors.add(book.getAuthor());
+    public void saveToBinaryFile(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path must not be null or empty.");
+        }
+
+        Path path = new File(filePath.trim()).toPath().toAbsolutePath();
+
+        try {
+            Files.createDirectories(path.getParent());
+            BinaryCatalogFormat.write(books, path);
+        } catch (IOException e) {
+            throw new LibraryFileException("Failed to write to file: " + filePath, e);
         }
-        return authors;
     }
 
     /**
-     * Подсчитывает количество книг по каждому статусу
+     * Сохраняет библиотеку в индексированный двоичный файл, отсортированный по ISBN.
+     * Такой файл открывается без загрузки книг через {@link MappedCatalog}.
      *
-     * @return Map ({статус=количество)}
+     * @param filePath путь к файлу (файл может существовать, тогда он будет перезаписан)
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файл не удалось записать или он получается больше 2 ГБ
      */
-    public Map<BookStatus, Integer> countBooksByStatus() {
-        Map<BookStatus, Integer> statusMap = new HashMap<>();
+    public void saveToIndexedBinaryFile(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path must not be null or empty.");
+        }
 
-        for (Book book : books.values()) {
-            BookStatus status = book.getStatus();
-            statusMap.put(status, statusMap.getOrDefault(status, 0) + 1);
+        Path path = new File(filePath.trim()).toPath().toAbsolutePath();
+
+        try {
+            Files.createDirectories(path.getParent());
+            BinaryCatalogFormat.writeIndexed(books, path);
+        } catch (IOException e) {
+            throw new LibraryFileException("Failed to write to file: " + filePath, e);
         }
+    }
 
-        return statusMap;
+    /**
+     * Загружает библиотеку из файла в двоичном формате
+     *
+     * @param filePath путь к файлу, сохранённому методом {@link #saveToBinaryFile(String)}
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файла по данному пути не существует,
+     *                                  файл оборван, имеет другой формат или другую версию формата
+     */
+    public void loadFromBinaryFile(String filePath) {
+        loadFromBinaryFile(filePath, null);
     }
 
     /**
-     * Удаляет все книги указанного автора.
-     * Использует итератор для безопасного удаления во время обхода коллекции.
+     * Загружает библиотеку из файла в двоичном формате.
+     * Текущий каталог заменяется только после успешного чтения всего файла.
+     * Если открыт журнал, загруженный каталог сохраняется как новый снимок, а журнал очищается (см. {@link #compactJournal()}).
      *
-     * @param author автор, книги которого нужно удалить (не может быть null или пустым)
-     * @return количество удаленных книг
-     * @throws IllegalArgumentException если author равен null или пустой строке
+     * @param filePath         путь к файлу, сохранённому методом {@link #saveToBinaryFile(String)}
+     * @param progressCallback получает количество уже прочитанных книг после каждой книги (может быть null)
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файла по данному пути не существует,
+     *                                  файл оборван, имеет другой формат или другую версию формата
      */
-    public int removeBooksByAuthor(String author) {
-        BookValidator.validateAuthor(author);
+    public void loadFromBinaryFile(String filePath, LongConsumer progressCallback) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path must not be null or empty.");
+        }
 
-        int count = 0;
+        File file = new File(filePath.trim());
 
-        Iterator<Book> iterator = books.values().iterator();
+        if (!file.exists()) {
+            throw new LibraryFileException("File doesn't exist. File path: " + filePath);
+        }
 
-        while (iterator.hasNext()) {
-            Book book = iterator.next();
-            if (book.getAuthor().equalsIgnoreCase(author.trim())) {
-                iterator.remove();
-                count++;
-            }
+        try {
+            replaceBooks(BinaryCatalogFormat.read(file.toPath(), progressCallback));
+        } catch (IOException e) {
+            throw new LibraryFileException("Error reading file: " + filePath, e);
         }
-        return count;
     }
 
     /**
-     * Возвращает книги, отсортированные по году издания (от старых к новым)
+     * Открывает библиотеку в режиме журнала: загружает последний снимок, применяет к нему журнал изменений,
+     * после чего все изменения (addBook, deleteBook, removeBooksByAuthor, borrowBook, returnBook,
+     * а также смена статуса методами самих книг библиотеки) дописываются в журнал отдельными записями
+     * до изменения библиотеки в памяти, а не сохраняют весь каталог.
+     * Если снимка ещё нет, библиотека начинается с пустого каталога.
+     * Записи не сбрасываются на диск после каждого изменения, см. {@link #openJournal(String, String, boolean)}.
      *
-     * @return List отсортированный список
+     * @param snapshotPath путь к снимку библиотеки в формате json
+     * @param journalPath  путь к файлу журнала
+     * @throws IllegalArgumentException если snapshotPath или journalPath null или empty
+     * @throws IllegalStateException    если журнал уже открыт
+     * @throws LibraryFileException     если снимок или журнал не удалось прочитать
+     * @see #compactJournal()
      */
-    public List<Book> getBooksSortedByYear() {
-        List<Book> bookList = new ArrayList<>(books.values());
-        bookList.sort(new BookYearComparator());
-        return bookList;
+    public void openJournal(String snapshotPath, String journalPath) {
+        openJournal(snapshotPath, journalPath, false);
     }
 
     /**
-     * Возвращает книги, отсортированные по имени автора
+     * Открывает библиотеку в режиме журнала, см. {@link #openJournal(String, String)}.
+     * Без forceEachRecord запись попадает в кеш операционной системы: она переживёт падение программы,
+     * но может быть потеряна при отключении питания. С forceEachRecord каждое изменение сбрасывается
+     * на диск через FileChannel.force до возврата из метода, как снимок в
+     * {@link #saveToJsonFileAtomically(String, JsonSaveMode, long)}, но каждое изменение становится заметно медленнее.
      *
-     * @return List отсортированный список
+     * @param snapshotPath    путь к снимку библиотеки в формате json
+     * @param journalPath     путь к файлу журнала
+     * @param forceEachRecord сбрасывать ли каждую запись журнала на диск
+     * @throws IllegalArgumentException если snapshotPath или journalPath null или empty
+     * @throws IllegalStateException    если журнал уже открыт
+     * @throws LibraryFileException     если снимок или журнал не удалось прочитать
+     * @see #compactJournal()
      */
-    public List<Book> getBooksSortedByAuthor() {
-        List<Book> bookList = new ArrayList<>(books.values());
-        bookList.sort(new BookAuthorComparator());
-        return bookList;
-    }
-
+    public void openJournal(String snapshotPath, String journalPath, boolean forceEachRecord) {
+        if (snapshotPath == null || snapshotPath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Snapshot path must not be null or empty.");
+        }
+        if (journalPath == null || journalPath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Journal path must not be null or empty.");
+        }
+        if (journal != null) {
+            throw new IllegalStateException("Journal is already open.");
+        }
+
+        if (new File(snapshotPath.trim()).exists()) {
+            loadFromJsonFile(snapshotPath);
+        } else {
+            replaceBooks(new HashMap<>());
+        }
+
+        Path path = new File(journalPath.trim()).toPath();
+        try {
+            long validLength = LibraryJournal.replay(path, this);
+            this.journal = new LibraryJournal(path, validLength, forceEachRecord);
+            this.snapshotPath = snapshotPath.trim();
+        } catch (IOException e) {
+            throw new LibraryFileException("Error reading journal: " + journalPath, e);
+        }
+    }
+
+    /**
+     * Переносит изменения из журнала в снимок: библиотека атомарно сохраняется в компактном формате,
+     * после чего журнал очищается.
+     *
+     * @throws IllegalStateException если журнал не открыт
+     * @throws LibraryFileException  если не удалось записать снимок или очистить журнал
+     */
+    public void compactJournal() {
+        if (journal == null) {
+            throw new IllegalStateException("Journal is not open.");
+        }
+        saveToJsonFileAtomically(snapshotPath, JsonSaveMode.COMPACT, 0);
+        try {
+            journal.truncate();
+        } catch (IOException e) {
+            throw new LibraryFileException("Failed to truncate journal after saving snapshot: " + snapshotPath, e);
+        }
+    }
+
+    /**
+     * Закрывает журнал. Изменения после закрытия в журнал не записываются.
+     * Если журнал не открыт, ничего не происходит.
+     *
+     * @throws LibraryFileException если журнал не удалось закрыть
+     */
+    public void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            throw new LibraryFileException("Failed to close journal.", e);
+        } finally {
+            journal = null;
+            snapshotPath = null;
+        }
+    }
+
+    /**
+     * Возвращает основную информацию о книгах из разных категорий (Book, TechnicalBook, FictionBook)
+     * Для больших библиотек лучше записывать отчёт сразу в Writer или канал,
+     * см. {@link #writeAllBooksBasicInfo(Writer)}.
+     */
+    public String getAllBooksBasicInfo() {
+        StringBuilder booksInfo = new StringBuilder();
+        try {
+            for (Book book : books.values()) {
+                book.writeBasicInfo(booksInfo);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return String.valueOf(booksInfo);
+    }
+
+    /**
+     * Записывает основную информацию о книгах в Writer построчно, не собирая отчёт в одну строку.
+     * Строки пишутся через один буфер, без String.format; каждая категория книг сама
+     * записывает свою строку. Writer после записи сбрасывается (flush), но не закрывается.
+     *
+     * @param writer куда записать отчёт (не может быть null)
+     * @throws IllegalArgumentException если writer null
+     * @throws LibraryFileException     если запись не удалась
+     */
+    public void writeAllBooksBasicInfo(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer must not be null.");
+        }
+        Writer out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, WRITE_BUFFER_SIZE);
+        try {
+            for (Book book : books.values()) {
+                book.writeBasicInfo(out);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new LibraryFileException("Error writing books report.", e);
+        }
+    }
+
+    /**
+     * Записывает основную информацию о книгах в канал в кодировке UTF-8, например в файл или сокет.
+     * Канал не закрывается.
+     *
+     * @param channel куда записать отчёт (не может быть null)
+     * @throws IllegalArgumentException если channel null
+     * @throws LibraryFileException     если запись не удалась
+     */
+    public void writeAllBooksBasicInfo(WritableByteChannel channel) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel must not be null.");
+        }
+        writeAllBooksBasicInfo(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ищет книги, изданные в указанный период.
+     * Использует упорядоченный индекс годов издания, поэтому просматриваются только годы из диапазона.
+     *
+     * @param fromYear начальный год (включительно)
+     * @param toYear   конечный год (включительно)
+     * @return List книги, удовлетворяющие условию
+     * @throws IllegalArgumentException если введенные годы издания меньше 1457 или больше текущего
+     *                                  или если конечный год меньше начального года
+     */
+    public List<Book> findBooksByYearRange(int fromYear, int toYear) {
+        BookValidator.validateYear(fromYear);
+        BookValidator.validateYear(toYear);
+        LibraryValidator.validateYearRange(fromYear, toYear);
+
+        List<Book> booksByYearRange = new ArrayList<>();
+
+        for (Set<String> isbns : index.findIsbnsByYearRange(fromYear, toYear)) {
+            for (String isbn : isbns) {
+                booksByYearRange.add(books.get(isbn));
+            }
+        }
+        return booksByYearRange;
+    }
+
+    /**
+     * Возвращает книги, изданные в указанный период, в виде ленивого потока в порядке годов издания.
+     * Книги не собираются в список: например, streamBooksByYearRange(1800, 1900).limit(50)
+     * прочитает из индекса только первые 50 книг.
+     * Поток читает индекс библиотеки напрямую, поэтому библиотеку нельзя изменять, пока поток не пройден.
+     *
+     * @param fromYear начальный год (включительно)
+     * @param toYear   конечный год (включительно)
+     * @return Stream книги, удовлетворяющие условию
+     * @throws IllegalArgumentException если введенные годы издания меньше 1457 или больше текущего
+     *                                  или если конечный год меньше начального года
+     */
+    public Stream<Book> streamBooksByYearRange(int fromYear, int toYear) {
+        BookValidator.validateYear(fromYear);
+        BookValidator.validateYear(toYear);
+        LibraryValidator.validateYearRange(fromYear, toYear);
+
+        return index.findIsbnsByYearRange(fromYear, toYear).stream()
+                .flatMap(Set::stream)
+                .map(books::get);
+    }
+
+    /**
+     * Возвращает первые limit книг, изданных в указанный период, в порядке comparator.
+     * Хранит в памяти не больше limit книг, время работы O(n log limit), где n - количество книг в периоде.
+     *
+     * @param fromYear   начальный год (включительно)
+     * @param toYear     конечный год (включительно)
+     * @param limit      максимальное количество книг в ответе (больше 0)
+     * @param comparator порядок книг в ответе
+     * @return List - не больше limit книг, отсортированных по comparator
+     * @throws IllegalArgumentException если годы издания неверны, limit меньше или равен 0 или comparator null
+     */
+    public List<Book> findBooksByYearRange(int fromYear, int toYear, int limit, Comparator<? super Book> comparator) {
+        validateTop(limit, comparator);
+        return selectTop(streamBooksByYearRange(fromYear, toYear), comparator, limit);
+    }
+
+    /**
+     * Возвращает книги автора в виде ленивого потока.
+     * Поток читает индекс библиотеки напрямую, поэтому библиотеку нельзя изменять, пока поток не пройден.
+     *
+     * @param author автор, чьи книги необходимо найти (проходит валидацию)
+     * @return Stream книги данного автора
+     */
+    public Stream<Book> streamBooksByAuthor(String author) {
+        BookValidator.validateAuthor(author);
+        return index.findIsbnsByAuthor(author).stream().map(books::get);
+    }
+
+    /**
+     * Возвращает первые limit книг автора в порядке comparator.
+     * Хранит в памяти не больше limit книг.
+     *
+     * @param author     автор, чьи книги необходимо найти (проходит валидацию)
+     * @param limit      максимальное количество книг в ответе (больше 0)
+     * @param comparator порядок книг в ответе
+     * @return List - не больше limit книг, отсортированных по comparator
+     * @throws IllegalArgumentException если limit меньше или равен 0 или comparator null
+     */
+    public List<Book> findBookByAuthor(String author, int limit, Comparator<? super Book> comparator) {
+        validateTop(limit, comparator);
+        return selectTop(streamBooksByAuthor(author), comparator, limit);
+    }
+
+    /**
+     * Возвращает первые limit книг библиотеки в порядке comparator, не сортируя всю библиотеку.
+     * Для постоянных порядков из {@link SortOrder} быстрее {@link #getBooksSorted(SortOrder, int, int)}.
+     *
+     * @param limit      максимальное количество книг в ответе (больше 0)
+     * @param comparator порядок книг в ответе
+     * @return List - не больше limit книг, отсортированных по comparator
+     * @throws IllegalArgumentException если limit меньше или равен 0 или comparator null
+     */
+    public List<Book> findTopBooks(int limit, Comparator<? super Book> comparator) {
+        validateTop(limit, comparator);
+        return selectTop(books.values().stream(), comparator, limit);
+    }
+
+    /**
+     * Поиск книг по составному запросу: автор, название, период издания, статус, тип книги,
+     * жанр, предмет и уровень сложности.
+     * Планировщик сравнивает размеры списков ISBN в индексах автора, названия и годов издания
+     * для условий запроса и перебирает только самый короткий из них. Принадлежность к остальным
+     * спискам проверяется поиском в множестве ISBN, а неиндексированные условия - по самой книге,
+     * всё за один проход. Если в запросе нет условий по автору, названию или году, просматриваются все книги.
+     *
+     * @param query запрос, незаданные условия не проверяются
+     * @return List - книги, соответствующие всем условиям запроса, порядок не гарантирован
+     * @throws IllegalArgumentException если query null
+     */
+    public List<Book> findBooks(BookQuery query) {
+        List<Book> found = new ArrayList<>();
+        executeQuery(query, found::add);
+        return found;
+    }
+
+    /**
+     * Подсчитывает книги, соответствующие составному запросу, не собирая их в список.
+     *
+     * @param query запрос, незаданные условия не проверяются
+     * @return int - количество книг, соответствующих всем условиям запроса
+     * @throws IllegalArgumentException если query null
+     * @see #findBooks(BookQuery)
+     */
+    public int countBooks(BookQuery query) {
+        int[] count = new int[1];
+        executeQuery(query, book -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Описывает, как будет выполнен запрос: какой индекс выбран и сколько книг будет просмотрено,
+     * например "author index, 2 candidates" или "full scan, 1000 candidates".
+     *
+     * @param query запрос
+     * @return String - описание плана выполнения запроса
+     * @throws IllegalArgumentException если query null
+     */
+    public String explainQuery(BookQuery query) {
+        QueryPlan plan = planQuery(query);
+        return plan.index() + ", " + plan.candidates() + " candidates";
+    }
+
+    /**
+     * Возвращает множество уникальных авторов в библиотеке.
+     * Авторы хранятся со счётчиком книг и обновляются при добавлении и удалении книг,
+     * поэтому время работы зависит от количества авторов, а не книг.
+     * Метод можно вызывать из других потоков во время изменения библиотеки.
+     *
+     * @return Set уникальные имена авторов
+     */
+    public Set<String> getAllUniqueAuthors() {
+        Set<String> authors = new HashSet<>(authorCounts.keySet());
+        if (booksWithoutAuthor.get() > 0) {
+            authors.add(null);
+        }
+        return authors;
+    }
+
+    /**
+     * Подсчитывает количество книг по каждому статусу.
+     * Счётчики обновляются при добавлении и удалении книг и при каждом изменении статуса книги
+     * (выдача, возврат, setStatus), поэтому книги не перебираются.
+     * Метод можно вызывать из других потоков во время выдачи и возврата книг.
+     *
+     * @return Map ({статус=количество)}, статусы без книг в Map не входят
+     */
+    public Map<BookStatus, Integer> countBooksByStatus() {
+        Map<BookStatus, Integer> statusMap = new HashMap<>();
+
+        for (int slot = 0; slot < statusCounts.length(); slot++) {
+            int count = statusCounts.get(slot);
+            if (count > 0) {
+                statusMap.put(slot == 0 ? null : BookStatus.values()[slot - 1], count);
+            }
+        }
+
+        return statusMap;
+    }
+
+    /**
+     * Удаляет все книги указанного автора.
+     * Книги автора находятся по индексу авторов, обход всей коллекции не требуется.
+     *
+     * @param author автор, книги которого нужно удалить (не может быть null или пустым)
+     * @return количество удаленных книг
+     * @throws IllegalArgumentException если author равен null или пустой строке
+     */
+    public int removeBooksByAuthor(String author) {
+        BookValidator.validateAuthor(author);
+
+        List<String> isbns = new ArrayList<>(index.findIsbnsByAuthor(author));
+
+        if (journal != null && !isbns.isEmpty()) {
+            journal.authorRemoved(author);
+        }
+        for (String isbn : isbns) {
+            unindexBook(isbn, books.remove(isbn));
+        }
+        return isbns.size();
+    }
+
+    /**
+     * Удаляет все книги нескольких авторов одним пакетом.
+     * Книги находятся по индексу авторов, индексы, отсортированные списки и счётчики обновляются один раз для пакета.
+     *
+     * @param authors авторы, книги которых нужно удалить (регистр не важен)
+     * @return Map ({автор=количество удаленных книг}) для каждого автора из authors, включая авторов без книг
+     * @throws IllegalArgumentException если authors null или содержит null или пустую строку
+     */
+    public Map<String, Integer> removeBooksByAuthors(Set<String> authors) {
+        if (authors == null) {
+            throw new IllegalArgumentException("Authors must not be null.");
+        }
+        for (String author : authors) {
+            BookValidator.validateAuthor(author);
+        }
+
+        Map<String, Integer> removedByAuthor = new LinkedHashMap<>();
+        Set<String> isbns = new LinkedHashSet<>();
+        for (String author : authors) {
+            int before = isbns.size();
+            isbns.addAll(index.findIsbnsByAuthor(author));
+            removedByAuthor.put(author, isbns.size() - before);
+        }
+
+        if (journal != null) {
+            for (Map.Entry<String, Integer> removed : removedByAuthor.entrySet()) {
+                if (removed.getValue() > 0) {
+                    journal.authorRemoved(removed.getKey());
+                }
+            }
+        }
+        removeBatch(isbns);
+        return removedByAuthor;
+    }
+
+    /**
+     * Удаляет все книги, удовлетворяющие условию, одним пакетом.
+     * Условие проверяется для каждой книги, в больших библиотеках - параллельно,
+     * поэтому оно не должно изменять книги или библиотеку. Если книги выбираются по автору,
+     * быстрее {@link #removeBooksByAuthors(Set)}, который использует индекс.
+     *
+     * @param filter условие удаления книги
+     * @return Map ({автор=количество удаленных книг}) только для авторов, чьи книги были удалены
+     * @throws IllegalArgumentException если filter null
+     */
+    public Map<String, Integer> removeBooksIf(Predicate<? super Book> filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter must not be null.");
+        }
+
+        Stream<Book> candidates = books.size() >= PARALLEL_SCAN_THRESHOLD
+                ? books.values().parallelStream()
+                : books.values().stream();
+        List<Book> matched = candidates.filter(filter).toList();
+
+        Map<String, Integer> removedByAuthor = new HashMap<>();
+        Set<String> isbns = new LinkedHashSet<>();
+        for (Book book : matched) {
+            isbns.add(book.getIsbn());
+            removedByAuthor.merge(book.getAuthor(), 1, Integer::sum);
+        }
+
+        if (journal != null) {
+            for (String isbn : isbns) {
+                journal.bookDeleted(isbn);
+            }
+        }
+        removeBatch(isbns);
+        return removedByAuthor;
+    }
+
+    /**
+     * Возвращает книги, отсортированные по году издания (от старых к новым)
+     *
+     * @return List отсортированный список
+     * @see #getBooksSorted(SortOrder, int, int)
+     */
+    public List<Book> getBooksSortedByYear() {
+        return new ArrayList<>(sortedView(SortOrder.YEAR));
+    }
+
+    /**
+     * Возвращает книги, отсортированные по имени автора
+     *
+     * @return List отсортированный список
+     */
+    public List<Book> getBooksSortedByAuthor() {
+        return new ArrayList<>(sortedView(SortOrder.AUTHOR));
+    }
+
     /**
      * Возвращает книги, отсортированные по названию книги
      *
      * @return List отсортированный список
      */
     public List<Book> getBooksSortedByTitle() {
-        List<Book> bookList = new ArrayList<>(books.values());
-        bookList.sort(new BookTitleComparator());
-        return bookList;
+        return new ArrayList<>(sortedView(SortOrder.TITLE));
     }
 
     /**
@@ -367,10 +1332,745 @@ public class Library {
      * @return List отсортированный список
      */
     public List<Book> getBooksSortedByTitleThenAuthorThenYear() {
-        List<Book> bookList = new ArrayList<>(books.values());
-        Comparator<Book> complexComparator = Comparator.comparing(Book::getTitle).
-                thenComparing(Book::getAuthor).thenComparingInt(Book::getYear);
-        bookList.sort(complexComparator);
-        return bookList;
+        return new ArrayList<>(sortedView(SortOrder.TITLE_THEN_AUTHOR_THEN_YEAR));
+    }
+
+    /**
+     * Возвращает страницу отсортированных книг.
+     * Отсортированный список строится при первом обращении. Изменения каталога в нём только отмечаются
+     * и применяются при следующем запросе почти за линейное время, а запросы без изменений между ними
+     * не сортируют и не копируют весь каталог.
+     *
+     * @param order  порядок сортировки
+     * @param offset сколько книг пропустить с начала (0 или больше)
+     * @param limit  максимальное количество книг на странице (больше 0)
+     * @return List - книги страницы, пустой список если offset больше количества книг
+     * @throws IllegalArgumentException если order null, offset меньше 0 или limit меньше или равен 0
+     */
+    public List<Book> getBooksSorted(SortOrder order, int offset, int limit) {
+        validatePage(order, limit);
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative. Got: " + offset);
+        }
+        return page(sortedView(order), offset, limit);
+    }
+
+    /**
+     * Возвращает страницу отсортированных книг, следующих за указанной книгой.
+     * В отличие от смещения, курсор не сдвигается, если между запросами страниц книги добавляют или удаляют:
+     * книга-курсор может быть уже удалена из библиотеки.
+     *
+     * @param order порядок сортировки
+     * @param after последняя книга предыдущей страницы, null - для первой страницы
+     * @param limit максимальное количество книг на странице (больше 0)
+     * @return List - книги, идущие в этом порядке после after
+     * @throws IllegalArgumentException если order null или limit меньше или равен 0
+     */
+    public List<Book> getBooksSortedAfter(SortOrder order, Book after, int limit) {
+        validatePage(order, limit);
+        List<Book> sorted = sortedView(order);
+        if (after == null) {
+            return page(sorted, 0, limit);
+        }
+        int position = Collections.binarySearch(sorted, after, order.comparator());
+        return page(sorted, position < 0 ? -position - 1 : position + 1, limit);
+    }
+
+    /**
+     * Применяет запись журнала о добавлении книги. Книга с тем же ISBN заменяется.
+     */
+    void replayAdd(Book book) {
+        Book previous = books.put(book.getIsbn(), book);
+        if (previous != null) {
+            unindexBook(book.getIsbn(), previous);
+        }
+        indexBook(book.getIsbn(), book);
+    }
+
+    /**
+     * Применяет запись журнала об удалении книги. Отсутствующая книга пропускается.
+     */
+    void replayDelete(String isbn) {
+        Book removed = books.remove(isbn);
+        if (removed != null) {
+            unindexBook(isbn, removed);
+        }
+    }
+
+    /**
+     * Применяет запись журнала об удалении всех книг автора.
+     */
+    void replayRemoveAuthor(String author) {
+        for (String isbn : new ArrayList<>(index.findIsbnsByAuthor(author))) {
+            unindexBook(isbn, books.remove(isbn));
+        }
+    }
+
+    /**
+     * Применяет запись журнала о выдаче книги. Уже выданная или отсутствующая книга пропускается.
+     */
+    void replayBorrow(String isbn, String borrowerName) {
+        Book book = books.get(isbn);
+        if (book != null && book.isAvailable()) {
+            book.borrow(borrowerName);
+        }
+    }
+
+    /**
+     * Применяет запись журнала о возврате книги. Не выданная или отсутствующая книга пропускается.
+     */
+    void replayReturn(String isbn) {
+        Book book = books.get(isbn);
+        if (book != null && book.getStatus() == BookStatus.BORROWED) {
+            book.returnBook();
+        }
+    }
+
+    /**
+     * Применяет запись журнала о смене статуса книги: статус и читатель заменяются. Отсутствующая книга пропускается.
+     */
+    void replayStatus(String isbn, BookStatus status, String borrower) {
+        Book book = books.get(isbn);
+        if (book != null) {
+            book.restoreState(status, borrower);
+        }
+    }
+
+    /**
+     * Возвращает ISBN книг, в названии или имени автора которых есть все слова.
+     * Пересечение начинается с самого редкого слова.
+     * Вспомогательный метод
+     */
+    private Set<String> findIsbnsByAllTokens(List<String> tokens) {
+        List<String> byFrequency = new ArrayList<>(tokens);
+        byFrequency.sort(Comparator.comparingInt(
+                token -> index.findIsbnsByTitleToken(token).size() + index.findIsbnsByAuthorToken(token).size()));
+
+        String rarest = byFrequency.get(0);
+        Set<String> result = new HashSet<>(index.findIsbnsByTitleToken(rarest));
+        result.addAll(index.findIsbnsByAuthorToken(rarest));
+
+        for (String token : byFrequency.subList(1, byFrequency.size())) {
+            Set<String> inTitles = index.findIsbnsByTitleToken(token);
+            Set<String> inAuthors = index.findIsbnsByAuthorToken(token);
+            result.removeIf(isbn -> !inTitles.contains(isbn) && !inAuthors.contains(isbn));
+        }
+        return result;
+    }
+
+    /**
+     * Выбирает для запроса самый короткий список ISBN среди индексов автора, названия и годов издания.
+     * Пустой список выбирается сразу, поэтому запрос без результатов не просматривает книги.
+     * Вспомогательный метод
+     */
+    private QueryPlan planQuery(BookQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query must not be null.");
+        }
+        Set<String> byAuthor = query.getAuthor() == null ? null : index.findIsbnsByAuthor(query.getAuthor());
+        Set<String> byTitle = query.getTitle() == null ? null : index.findIsbnsByTitle(query.getTitle());
+
+        QueryPlan plan = new QueryPlan("full scan", null, books.size(), byAuthor, byTitle, false);
+        if (byAuthor != null && byAuthor.size() < plan.candidates()) {
+            plan = new QueryPlan("author index", List.of(byAuthor), byAuthor.size(), null, byTitle, false);
+        }
+        if (byTitle != null && byTitle.size() < plan.candidates()) {
+            plan = new QueryPlan("title index", List.of(byTitle), byTitle.size(), byAuthor, null, false);
+        }
+        if (query.hasYearRange() && plan.candidates() > 0) {
+            Collection<Set<String>> byYear = index.findIsbnsByYearRange(query.getFromYear(), query.getToYear());
+            int size = 0;
+            for (Set<String> isbns : byYear) {
+                size += isbns.size();
+            }
+            if (size < plan.candidates()) {
+                plan = new QueryPlan("year index", byYear, size, byAuthor, byTitle, true);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Выполняет запрос по плану и передаёт каждую подходящую книгу в action.
+     * Вспомогательный метод
+     */
+    private void executeQuery(BookQuery query, Consumer<Book> action) {
+        QueryPlan plan = planQuery(query);
+        if (plan.postings() == null) {
+            for (Map.Entry<String, Book> entry : books.entrySet()) {
+                acceptIfMatches(query, plan, entry.getKey(), entry.getValue(), action);
+            }
+            return;
+        }
+        for (Set<String> isbns : plan.postings()) {
+            for (String isbn : isbns) {
+                acceptIfMatches(query, plan, isbn, books.get(isbn), action);
+            }
+        }
+    }
+
+    /**
+     * Проверяет книгу по спискам ISBN, не выбранным планом, и по остальным условиям запроса.
+     * Вспомогательный метод
+     */
+    private static void acceptIfMatches(BookQuery query, QueryPlan plan, String isbn, Book book,
+                                        Consumer<Book> action) {
+        if (plan.authorIsbns() != null && !plan.authorIsbns().contains(isbn)) {
+            return;
+        }
+        if (plan.titleIsbns() != null && !plan.titleIsbns().contains(isbn)) {
+            return;
+        }
+        if (query.matches(book, true, true, plan.yearIndexUsed())) {
+            action.accept(book);
+        }
+    }
+
+    /**
+     * Проверяет книги пакета. Большие пакеты проверяются параллельно, но ошибка всегда
+     * сообщается для первой по порядку невалидной книги.
+     * Вспомогательный метод
+     */
+    private static void validateBooks(List<Book> batch) {
+        IntStream positions = IntStream.range(0, batch.size());
+        if (batch.size() >= PARALLEL_VALIDATION_THRESHOLD) {
+            positions = positions.parallel();
+        }
+        OptionalInt firstInvalid = positions.filter(i -> !isValidBook(batch.get(i))).findFirst();
+        if (firstInvalid.isPresent()) {
+            validateBook(batch.get(firstInvalid.getAsInt()));
+        }
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private static boolean isValidBook(Book book) {
+        try {
+            validateBook(book);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private static void validateBook(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book must not be null.");
+        }
+        BookValidator.validateTitle(book.getTitle());
+        BookValidator.validateAuthor(book.getAuthor());
+        BookValidator.validateYear(book.getYear());
+        BookValidator.validateIsbn(book.getIsbn());
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private static void validatePage(SortOrder order, int limit) {
+        if (order == null) {
+            throw new IllegalArgumentException("Sort order must not be null.");
+        }
+        validateLimit(limit);
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private static void validateTop(int limit, Comparator<?> comparator) {
+        validateLimit(limit);
+        if (comparator == null) {
+            throw new IllegalArgumentException("Comparator must not be null.");
+        }
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private static void validateLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0. Got: " + limit);
+        }
+    }
+
+    /**
+     * Выбирает limit наименьших по comparator элементов с помощью кучи ограниченного размера.
+     * В куче на вершине лежит худший из отобранных элементов, и новый элемент заменяет его,
+     * только если он лучше. Время O(n log limit), память O(limit).
+     * Вспомогательный метод
+     *
+     * @return List - отобранные элементы, отсортированные по comparator
+     */
+    private static <T> List<T> selectTop(Stream<? extends T> candidates, Comparator<? super T> comparator, int limit) {
+        Comparator<T> order = (first, second) -> comparator.compare(first, second);
+        PriorityQueue<T> heap = new PriorityQueue<>(order.reversed());
+        candidates.forEach(candidate -> {
+            if (heap.size() < limit) {
+                heap.offer(candidate);
+            } else if (comparator.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(candidate);
+            }
+        });
+
+        List<T> top = new ArrayList<>(heap);
+        top.sort(comparator);
+        return top;
+    }
+
+    /**
+     * Копирует только книги страницы.
+     * Вспомогательный метод
+     */
+    private static List<Book> page(List<Book> sorted, int from, int limit) {
+        if (from >= sorted.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(sorted.subList(from, (int) Math.min(sorted.size(), (long) from + limit)));
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private static void validateSearch(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be null or empty.");
+        }
+        validateLimit(limit);
+    }
+
+    /**
+     * Возвращает книги по множеству ISBN из индекса.
+     * Вспомогательный метод
+     */
+    private List<Book> getBooksByIsbns(Set<String> isbns) {
+        List<Book> found = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            found.add(books.get(isbn));
+        }
+        return found;
+    }
+
+    /**
+     * Добавляет книгу в индексы и отмечает её в уже построенных отсортированных списках.
+     * Списки досортировываются при следующем чтении, поэтому добавление стоит O(1).
+     * Вспомогательный метод
+     */
+    private void indexBook(String isbn, Book book) {
+        changed();
+        index.add(isbn, book);
+        countBook(book);
+        for (SortedView view : sortedViews.values()) {
+            view.add(book);
+        }
+    }
+
+    /**
+     * Удаляет книгу из индексов и отмечает её в уже построенных отсортированных списках.
+     * Из списков книга убирается при следующем чтении, поэтому удаление стоит O(1).
+     * Вспомогательный метод
+     */
+    private void unindexBook(String isbn, Book book) {
+        changed();
+        index.remove(isbn, book);
+        uncountBook(book);
+        for (SortedView view : sortedViews.values()) {
+            view.remove(book);
+        }
+    }
+
+    /**
+     * Возвращает отсортированный список книг, строя его при первом обращении
+     * и применяя к нему изменения с предыдущего обращения.
+     * Вспомогательный метод
+     */
+    private List<Book> sortedView(SortOrder order) {
+        return sortedViews.computeIfAbsent(order, key -> new SortedView(key.comparator(), books.values())).books();
+    }
+
+    /**
+     * Перестраивает вторичные индексы после замены содержимого библиотеки.
+     * Вспомогательный метод
+     */
+    private void rebuildIndex() {
+        changed();
+        index.clear();
+        sortedViews.clear();
+        for (Map.Entry<String, Book> entry : books.entrySet()) {
+            index.add(entry.getKey(), entry.getValue());
+            countBook(entry.getValue());
+        }
+    }
+
+    /**
+     * Удаляет книги пакетом. Если удаляется заметная часть библиотеки, отсортированные списки
+     * сбрасываются и строятся заново при следующем обращении, вместо удаления из них по одной книге.
+     * Вспомогательный метод
+     */
+    private void removeBatch(Collection<String> isbns) {
+        if (isbns.size() > SORTED_VIEW_BATCH_LIMIT) {
+            sortedViews.clear();
+        }
+        for (String isbn : isbns) {
+            unindexBook(isbn, books.remove(isbn));
+        }
+    }
+
+    /**
+     * Отмечает изменение состава библиотеки: увеличивает поколение и сбрасывает снимок.
+     * Вспомогательный метод
+     */
+    private void changed() {
+        generation++;
+        snapshot = null;
+    }
+
+    /**
+     * Заменяет содержимое библиотеки загруженными книгами.
+     * Старые книги отписываются от счётчиков статусов, для новых индексы и счётчики строятся заново.
+     * Если журнал открыт, загруженный каталог сразу сохраняется как снимок, а журнал очищается:
+     * иначе следующие записи журнала применились бы при открытии к прежнему снимку.
+     * Вспомогательный метод
+     */
+    private void replaceBooks(Map<String, Book> loaded) {
+        for (Book book : books.values()) {
+            book.removeStatusListener(statusListener);
+        }
+        for (int slot = 0; slot < statusCounts.length(); slot++) {
+            statusCounts.set(slot, 0);
+        }
+        authorCounts.clear();
+        booksWithoutAuthor.set(0);
+        this.books = compactIsbnKeys ? new CompactIsbnMap(loaded) : loaded;
+        rebuildIndex();
+        if (journal != null) {
+            compactJournal();
+        }
+    }
+
+    /**
+     * Учитывает книгу в счётчиках статусов и авторов и подписывается на изменения её статуса.
+     * Вспомогательный метод
+     */
+    private void countBook(Book book) {
+        book.addStatusListener(statusListener);
+        statusCounts.incrementAndGet(statusSlot(book.getStatus()));
+        if (book.getAuthor() == null) {
+            booksWithoutAuthor.incrementAndGet();
+        } else {
+            authorCounts.merge(book.getAuthor(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Вспомогательный метод
+     */
+    private void uncountBook(Book book) {
+        book.removeStatusListener(statusListener);
+        statusCounts.decrementAndGet(statusSlot(book.getStatus()));
+        if (book.getAuthor() == null) {
+            booksWithoutAuthor.decrementAndGet();
+        } else {
+            authorCounts.computeIfPresent(book.getAuthor(), (author, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Номер счётчика для статуса: 0 - книги без статуса, далее по порядку BookStatus.
+     * Вспомогательный метод
+     */
+    private static int statusSlot(BookStatus status) {
+        return status == null ? 0 : status.ordinal() + 1;
+    }
+
+    /**
+     * Записывает книги в файл потоково, по одной, через буферизованный FileChannel.
+     * Вспомогательный метод
+     *
+     * @param maxBytesPerSecond ограничение скорости записи, 0 - без ограничения
+     * @param force             сбросить ли данные на диск перед закрытием файла
+     */
+    private static void writeBooks(Map<String, Book> books, Path path, JsonSaveMode mode, long maxBytesPerSecond,
+                                   boolean force) throws IOException {
+        ObjectWriter writer = mode == JsonSaveMode.COMPACT ? compactWriter : prettyWriter;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            if (maxBytesPerSecond > 0) {
+                out = new ThrottledOutputStream(out, maxBytesPerSecond);
+            }
+            try (JsonGenerator generator = writer.createGenerator(new BufferedOutputStream(out, WRITE_BUFFER_SIZE))) {
+                generator.writeStartObject();
+                for (Map.Entry<String, Book> entry : books.entrySet()) {
+                    generator.writeFieldName(entry.getKey());
+                    writer.writeValue(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+                generator.flush();
+                if (force) {
+                    channel.force(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Создаёт временный файл в той же папке, что и целевой файл.
+     * В отличие от Files.createTempFile (права rw-------) файл создаётся с правами по умолчанию,
+     * а если целевой файл уже существует - получает его права POSIX, поэтому переименование их не меняет.
+     * Вспомогательный метод
+     */
+    private static Path createTempFileFor(Path path) throws IOException {
+        while (true) {
+            Path tempPath = path.resolveSibling(path.getFileName() + "."
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.createFile(tempPath);
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+            try {
+                if (Files.exists(path)
+                        && Files.getFileStore(path).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                    Files.setPosixFilePermissions(tempPath, Files.getPosixFilePermissions(path));
+                }
+            } catch (IOException e) {
+                deleteQuietly(tempPath);
+                throw e;
+            }
+            return tempPath;
+        }
+    }
+
+    /**
+     * Сбрасывает на диск запись о переименовании файла в папке.
+     * Не все файловые системы позволяют открыть папку как FileChannel, в этом случае шаг пропускается.
+     * Вспомогательный метод
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Удаляет временный файл после неудачной записи.
+     * Вспомогательный метод
+     */
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Разделяет ошибки чтения json по видам, одинаково для одного файла и для шардов.
+     * Вспомогательный метод
+     */
+    private static LibraryFileException toLibraryFileException(String filePath, IOException e) {
+        if (e instanceof JsonParseException) {
+            return new LibraryFileException("Invalid JSON syntax: " + filePath, e);
+        }
+        if (e instanceof MismatchedInputException) {
+            return new LibraryFileException("Invalid book data: " + filePath, e);
+        }
+        return new LibraryFileException("Error reading file: " + filePath, e);
+    }
+
+    /**
+     * Читает один шард. Пустой файл соответствует пустому шарду.
+     * Вспомогательный метод
+     */
+    private static Map<String, Book> readShard(Path shardPath) throws IOException {
+        if (Files.size(shardPath) == 0) {
+            return new HashMap<>();
+        }
+        try (JsonParser parser = mapper.getFactory().createParser(shardPath.toFile())) {
+            return readBooks(parser, null);
+        }
+    }
+
+    /**
+     * Возвращает файлы шардов в папке, отсортированные по имени.
+     * Вспомогательный метод
+     */
+    private static List<Path> listShards(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> SHARD_FILE_PATTERN.matcher(path.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Проверяет, что в папке лежат все шарды одного сохранения: от 0 до N-1 из N.
+     * Вспомогательный метод
+     */
+    private static void checkShardsComplete(List<Path> shardPaths, String directoryPath) {
+        if (shardPaths.isEmpty()) {
+            throw new LibraryFileException("No shards found in directory: " + directoryPath);
+        }
+        for (int i = 0; i < shardPaths.size(); i++) {
+            Matcher matcher = SHARD_FILE_PATTERN.matcher(shardPaths.get(i).getFileName().toString());
+            if (!matcher.matches() || Integer.parseInt(matcher.group(1)) != i
+                    || Integer.parseInt(matcher.group(2)) != shardPaths.size()) {
+                throw new LibraryFileException("Sharded catalogue is incomplete: " + directoryPath);
+            }
+        }
+    }
+
+    /**
+     * Дожидается результата задачи шарда и возвращает исходную ошибку ввода-вывода вместо ExecutionException.
+     * ForkJoinPool оборачивает проверяемые исключения задач в RuntimeException,
+     * поэтому IOException ищется по всей цепочке причин.
+     * Вспомогательный метод
+     */
+    private static <T> T getShardResult(Future<T> future, String path) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LibraryFileException("Interrupted while processing shards: " + path, e);
+        } catch (ExecutionException e) {
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new LibraryFileException("Failed to process shard: " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Читает книги из json-объекта вида {"ISBN": {книга}, ...} по одной.
+     * Вспомогательный метод
+     *
+     * @throws MismatchedInputException если корневой элемент не объект или данные книги не подходят
+     */
+    private static Map<String, Book> readBooks(JsonParser parser, LongConsumer progressCallback) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(parser, Map.class,
+                    "Expected a JSON object with books, but got: " + token);
+        }
+
+        Map<String, Book> loaded = new HashMap<>();
+        long count = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String isbn = parser.currentName();
+            parser.nextToken();
+            Book book = mapper.readValue(parser, Book.class);
+            if (book == null) {
+                throw MismatchedInputException.from(parser, Book.class, "Book data must not be null. ISBN: " + isbn);
+            }
+            loaded.put(isbn, book);
+            count++;
+            if (progressCallback != null) {
+                progressCallback.accept(count);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Слушатель статуса книг библиотеки: записывает изменения в журнал и обновляет счётчики статусов.
+     * Книги могут быть общими с кодом, создавшим библиотеку, и пережить её, поэтому слушатель ссылается
+     * на библиотеку через WeakReference: подписка не удерживает библиотеку в памяти. После того как
+     * библиотека собрана сборщиком мусора, слушатель ничего не делает, а книги удаляют его при следующей подписке.
+     */
+    private static final class StatusHook implements Book.StatusListener {
+        private final WeakReference<Library> library;
+
+        private StatusHook(Library library) {
+            this.library = new WeakReference<>(library);
+        }
+
+        @Override
+        public void statusChanging(Book book, BookStatus status, String borrower) {
+            Library owner = library.get();
+            LibraryJournal journal = owner == null ? null : owner.journal;
+            if (journal != null) {
+                journal.statusChanged(book.getIsbn(), status, borrower);
+            }
+        }
+
+        @Override
+        public void statusChanged(BookStatus previous, BookStatus current) {
+            Library owner = library.get();
+            if (owner != null) {
+                owner.statusCounts.decrementAndGet(statusSlot(previous));
+                owner.statusCounts.incrementAndGet(statusSlot(current));
+            }
+        }
+
+        @Override
+        public boolean isActive() {
+            return library.get() != null;
+        }
+    }
+
+    /**
+     * Отсортированный список книг, который досортировывается при чтении.
+     * Добавленные книги дописываются в конец, удалённые запоминаются, поэтому изменение стоит O(1).
+     * При следующем чтении удалённые книги убираются одним проходом, а список сортируется заново.
+     * TimSort находит уже упорядоченную часть, поэтому после k изменений это стоит около O(n + k log k).
+     * Поля, по которым сортируются книги, не меняются, поэтому положение оставшихся книг остаётся верным.
+     */
+    private static final class SortedView {
+        private final Comparator<Book> comparator;
+        private final List<Book> books;
+        private final Set<Book> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean sorted = true;
+
+        private SortedView(Comparator<Book> comparator, Collection<Book> books) {
+            this.comparator = comparator;
+            this.books = new ArrayList<>(books);
+            this.books.sort(comparator);
+        }
+
+        private void add(Book book) {
+            if (!removed.remove(book)) {
+                books.add(book);
+                sorted = false;
+            }
+        }
+
+        private void remove(Book book) {
+            removed.add(book);
+        }
+
+        private List<Book> books() {
+            if (!removed.isEmpty()) {
+                books.removeIf(removed::contains);
+                removed.clear();
+            }
+            if (!sorted) {
+                books.sort(comparator);
+                sorted = true;
+            }
+            return books;
+        }
+    }
+
+    /**
+     * План выполнения составного запроса.
+     * postings - списки ISBN выбранного индекса (null - просмотр всех книг),
+     * authorIsbns и titleIsbns - списки остальных индексов, с которыми нужно пересечь выбранный.
+     */
+    private record QueryPlan(String index, Collection<Set<String>> postings, int candidates,
+                             Set<String> authorIsbns, Set<String> titleIsbns, boolean yearIndexUsed) {
     }
 }
@@ -1,25 +1,64 @@
 package com.github.anastasiiasmotritskaya.javacore.oop;
 
-import java.util.UUID;
-
 /**
  * Представляет любой объект (книга, журнал, альбом и пр.) в библиотечной системе.
+ * Инвентарный номер создаётся при первом обращении к нему, а не в конструкторе:
+ * при загрузке большого каталога объекты, номер которых никто не запрашивает, не тратят время на его генерацию.
+ * Номер, сохранённый в json или в двоичном каталоге, при загрузке восстанавливается.
  *
  * @author Анастасия Смотрицкая
  * @version 1.0
  */
 public abstract class LibraryItem {
-    private final String inventoryNumber;
+    private static volatile InventoryNumberGenerator inventoryNumberGenerator = InventoryNumberGenerator.secureRandom();
+
+    private volatile String inventoryNumber;
 
     public abstract String getDescription();
 
     public abstract String getTitle();
 
     protected LibraryItem() {
-        inventoryNumber = UUID.randomUUID().toString();
     }
 
+    /**
+     * Возвращает инвентарный номер, создавая его текущим генератором при первом вызове.
+     *
+     * @return String - инвентарный номер, одинаковый при всех вызовах
+     */
     public String getInventoryNumber() {
-        return inventoryNumber;
+        String number = inventoryNumber;
+        if (number == null) {
+            synchronized (this) {
+                number = inventoryNumber;
+                if (number == null) {
+                    number = inventoryNumberGenerator.next();
+                    inventoryNumber = number;
+                }
+            }
+        }
+        return number;
+    }
+
+    /**
+     * Восстанавливает инвентарный номер, сохранённый в файле. Используется при чтении двоичного каталога.
+     *
+     * @param inventoryNumber сохранённый номер (если null, номер будет создан при первом обращении)
+     */
+    void restoreInventoryNumber(String inventoryNumber) {
+        this.inventoryNumber = inventoryNumber;
+    }
+
+    /**
+     * Задаёт генератор инвентарных номеров для всех объектов, номер которых ещё не создан.
+     *
+     * @param generator генератор, например {@link InventoryNumberGenerator#fastRandom()}
+     * @throws IllegalArgumentException если generator null
+     */
+    public static void setInventoryNumberGenerator(InventoryNumberGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("Inventory number generator must not be null.");
+        }
+        inventoryNumberGenerator = generator;
     }
 }
@@ -0,0 +1,206 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Журнал изменений библиотеки: каждая операция дописывается в конец файла отдельной строкой в формате json.
+ * Стоимость записи зависит от размера изменения, а не от размера каталога.
+ * <p>
+ * Запись делается до изменения библиотеки в памяти: если записать не удалось, изменение не выполняется.
+ * Выдача, возврат и смена статуса записываются одной записью с новым статусом и читателем,
+ * в том числе когда статус меняется методами самой книги.
+ * <p>
+ * Записи применяются при повторном открытии идемпотентно: добавление заменяет книгу с тем же ISBN,
+ * удаление отсутствующей книги пропускается, а статус книги просто заменяется.
+ * Поэтому повторное применение журнала к снимку, который уже содержит эти изменения, даёт то же состояние.
+ * Последняя строка, оборванная при сбое во время записи, игнорируется и обрезается при открытии журнала.
+ * <p>
+ * Надёжность записи: по умолчанию запись считается сделанной, когда она передана операционной системе.
+ * Такие записи переживают падение программы, но последние из них могут пропасть при отключении питания.
+ * Если журнал открыт с force, каждая запись сбрасывается на диск до возврата из метода изменения.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+final class LibraryJournal implements Closeable {
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean force;
+
+    /**
+     * Открывает журнал для дописывания, создавая файл при необходимости.
+     * Всё, что в файле записано после validLength (оборванная при сбое последняя запись), обрезается,
+     * чтобы следующая запись не склеилась с обрывком.
+     *
+     * @param path        путь к файлу журнала
+     * @param validLength длина целых записей, которую вернул {@link #replay(Path, Library)}
+     * @param force       сбрасывать ли каждую запись на диск
+     * @throws IOException если файл не удалось открыть или обрезать
+     */
+    LibraryJournal(Path path, long validLength, boolean force) throws IOException {
+        this.path = path;
+        this.force = force;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() > validLength) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+            channel.position(validLength);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    void bookAdded(Book book) {
+        append(new Record(Operation.ADD, book.getIsbn(), null, null, null, book));
+    }
+
+    void bookDeleted(String isbn) {
+        append(new Record(Operation.DELETE, isbn, null, null, null, null));
+    }
+
+    void authorRemoved(String author) {
+        append(new Record(Operation.REMOVE_AUTHOR, null, author, null, null, null));
+    }
+
+    void statusChanged(String isbn, BookStatus status, String borrower) {
+        append(new Record(Operation.STATUS, isbn, null, borrower, status, null));
+    }
+
+    /**
+     * Очищает журнал после того, как все его записи попали в снимок.
+     *
+     * @throws IOException если файл не удалось обрезать
+     */
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Применяет записи журнала к библиотеке в порядке их записи.
+     * Запись считается целой, только если после неё записан перевод строки.
+     * Последняя запись без перевода строки или с повреждённым json - след сбоя во время записи, она пропускается.
+     *
+     * @param path    путь к файлу журнала (если файла нет, ничего не происходит)
+     * @param library библиотека, к которой применяются изменения
+     * @return длина в байтах начала файла, состоящего из целых записей
+     * @throws IOException          если файл не удалось прочитать
+     * @throws LibraryFileException если запись в середине журнала повреждена
+     */
+    static long replay(Path path, Library library) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        long validLength = 0;
+        long position = 0;
+        int lineNumber = 0;
+        LibraryFileException broken = null;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    position++;
+                    if (broken != null) {
+                        throw broken;
+                    }
+                    if (buffer[i] != '\n') {
+                        line.write(buffer[i]);
+                        continue;
+                    }
+                    lineNumber++;
+                    String text = line.toString(StandardCharsets.UTF_8);
+                    line.reset();
+                    if (!text.isBlank()) {
+                        Record record;
+                        try {
+                            record = mapper.readValue(text, Record.class);
+                        } catch (JsonProcessingException e) {
+                            broken = new LibraryFileException("Invalid journal record at line " + lineNumber + ": " + path, e);
+                            continue;
+                        }
+                        record.applyTo(library);
+                    }
+                    validLength = position;
+                }
+            }
+        }
+        return validLength;
+    }
+
+    /**
+     * Записывает запись одной операцией write, чтобы строки разных записей не перемешивались.
+     * Если журнал открыт с force, запись сбрасывается на диск.
+     * Статус разных книг может меняться из разных потоков, поэтому записи дописываются по очереди.
+     * Вспомогательный метод
+     */
+    private synchronized void append(Record record) {
+        try {
+            byte[] json = mapper.writeValueAsBytes(record);
+            ByteBuffer buffer = ByteBuffer.allocate(json.length + 1);
+            buffer.put(json).put((byte) '\n').flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new LibraryFileException("Failed to write to journal: " + path, e);
+        }
+    }
+
+    /**
+     * BORROW и RETURN больше не пишутся, но читаются из журналов, записанных ранее.
+     */
+    private enum Operation {
+        ADD, DELETE, REMOVE_AUTHOR, BORROW, RETURN, STATUS
+    }
+
+    /**
+     * Одна строка журнала. Заполнены только поля, нужные для операции.
+     */
+    private record Record(Operation op, String isbn, String author, String borrower, BookStatus status, Book book) {
+
+        private void applyTo(Library library) {
+            switch (op) {
+                case ADD -> library.replayAdd(book);
+                case DELETE -> library.replayDelete(isbn);
+                case REMOVE_AUTHOR -> library.replayRemoveAuthor(author);
+                case BORROW -> library.replayBorrow(isbn, borrower);
+                case RETURN -> library.replayReturn(isbn);
+                case STATUS -> library.replayStatus(isbn, status, borrower);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.util.BookValidator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Каталог библиотеки только для чтения поверх файла, отображённого в память через FileChannel.map.
+ * Файл создаётся методом {@link Library#saveToIndexedBinaryFile(String)}: книги в нём отсортированы по ISBN,
+ * поэтому поиск выполняется двоичным поиском прямо по отображённому файлу.
+ * Открытие каталога не читает книги, данные остаются вне кучи, а объект Book создаётся
+ * только для найденной книги.
+ * <p>
+ * Каталог можно использовать из нескольких потоков. Возвращаемые книги - новые объекты при каждом вызове,
+ * их изменения в файл не записываются. Инвентарный номер книги читается из файла, поэтому он одинаков
+ * при всех поисках одной книги. Исключение - файлы версии 1, в которых номера нет: там каждая найденная
+ * книга получает новый номер, и идентичность книги определяется только по ISBN.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+public class MappedCatalog {
+    private final String filePath;
+    private final ByteBuffer mapped;
+    private final IntBuffer offsets;
+
+    /**
+     * Отображает файл каталога в память.
+     *
+     * @param filePath путь к файлу, сохранённому методом {@link Library#saveToIndexedBinaryFile(String)}
+     * @throws IllegalArgumentException если filePath null или empty
+     * @throws LibraryFileException     если файла по данному пути не существует,
+     *                                  файл больше 2 ГБ, имеет другой формат или другую версию формата
+     */
+    public MappedCatalog(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path must not be null or empty.");
+        }
+
+        File file = new File(filePath.trim());
+
+        if (!file.exists()) {
+            throw new LibraryFileException("File doesn't exist. File path: " + filePath);
+        }
+        if (file.length() > Integer.MAX_VALUE) {
+            throw new LibraryFileException("File is too large to be mapped: " + filePath);
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            this.offsets = BinaryCatalogFormat.indexedOffsets(mapped);
+        } catch (IOException e) {
+            throw new LibraryFileException("Error reading file: " + filePath, e);
+        }
+        this.filePath = filePath;
+    }
+
+    /**
+     * Поиск книги в каталоге по ISBN.
+     *
+     * @param isbn книга для поиска (проходит валидацию)
+     * @return Book - новую книгу с введенным ISBN и сохранённым инвентарным номером, прочитанную из файла
+     * @throws BookNotFoundException если книги с таким ISBN в каталоге нет
+     * @throws LibraryFileException  если запись книги в файле повреждена
+     */
+    public Book findBookByISBN(String isbn) {
+        BookValidator.validateIsbn(isbn);
+        int position = search(isbn);
+        if (position < 0) {
+            throw new BookNotFoundException(isbn);
+        }
+        try {
+            return BinaryCatalogFormat.readIndexedBook(mapped, offsets.get(position));
+        } catch (IOException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new LibraryFileException("Invalid book data: " + filePath, e);
+        }
+    }
+
+    /**
+     * Проверяет, есть ли книга с указанным ISBN, не создавая объект Book.
+     *
+     * @param isbn ISBN книги (проходит валидацию)
+     * @return true если книга есть в каталоге
+     * @throws LibraryFileException если запись книги в файле повреждена
+     */
+    public boolean containsIsbn(String isbn) {
+        BookValidator.validateIsbn(isbn);
+        return search(isbn) >= 0;
+    }
+
+    /**
+     * @return количество книг в каталоге
+     */
+    public int size() {
+        return offsets.limit();
+    }
+
+    /**
+     * Двоичный поиск ISBN по таблице смещений.
+     * Вспомогательный метод
+     *
+     * @return номер книги в таблице или -1, если книги нет
+     */
+    private int search(String isbn) {
+        byte[] key = isbn.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = offsets.limit() - 1;
+
+        try {
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int result = BinaryCatalogFormat.compareIndexedKey(mapped, offsets.get(mid), key);
+                if (result < 0) {
+                    low = mid + 1;
+                } else if (result > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+        } catch (IOException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new LibraryFileException("Invalid book data: " + filePath, e);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.anastasiiasmotritskaya.javacore.oop;
+
+import com.github.anastasiiasmotritskaya.javacore.util.BookAuthorComparator;
+import com.github.anastasiiasmotritskaya.javacore.util.BookTitleComparator;
+import com.github.anastasiiasmotritskaya.javacore.util.BookYearComparator;
+
+import java.util.Comparator;
+
+/**
+ * Порядок сортировки книг в библиотеке.
+ * YEAR - по году издания (от старых к новым)
+ * AUTHOR - по имени автора
+ * TITLE - по названию
+ * TITLE_THEN_AUTHOR_THEN_YEAR - по названию, потом по имени автора, потом по году издания
+ * Книги с одинаковыми значениями дополнительно упорядочиваются по ISBN,
+ * поэтому порядок однозначен и постраничный вывод не пропускает и не повторяет книги.
+ */
+public enum SortOrder {
+    YEAR(new BookYearComparator()),
+    AUTHOR(new BookAuthorComparator()),
+    TITLE(new BookTitleComparator()),
+    TITLE_THEN_AUTHOR_THEN_YEAR(Comparator.comparing(Book::getTitle)
+            .thenComparing(Book::getAuthor).thenComparingInt(Book::getYear));
+
+    private final Comparator<Book> comparator;
+
+    SortOrder(Comparator<Book> comparator) {
+        this.comparator = comparator.thenComparing(Book::getIsbn, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    /**
+     * @return Comparator - компаратор книг для этого порядка, включая упорядочивание по ISBN
+     */
+    public Comparator<Book> comparator() {
+        return comparator;
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.anastasiiasmotritskaya.javacore.oop;
 
+import java.io.IOException;
+
 /**
  * Представляет книгу в жанре техничевская литература в библиотечной системе.
  * Дополнительные поля: предмет (программирование, математика, физика),
@@ -55,6 +57,23 @@ public class TechnicalBook extends Book {
         return difficultyLevel;
     }
 
+    /**
+     * Заполняет предмет и уровень сложности без валидации, как при десериализации json.
+     * Используется при чтении двоичного каталога.
+     */
+    void restoreSubject(String subject, DifficultyLevel difficultyLevel) {
+        this.subject = subject;
+        this.difficultyLevel = difficultyLevel;
+    }
+
+    @Override
+    void writeBasicInfo(Appendable out) throws IOException {
+        out.append("Technical: ").append(getTitle())
+                .append(", subject: ").append(subject)
+                .append(", difficulty Level: ").append(String.valueOf(difficultyLevel))
+                .append(System.lineSeparator());
+    }
+
     @Override
     public String toString() {
         return "TechnicalBook{" +
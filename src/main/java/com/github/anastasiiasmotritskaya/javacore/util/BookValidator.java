@@ -9,6 +9,8 @@ import java.time.LocalDate;
  * @version 1.0
  */
 public final class BookValidator {
+    private static final int ISBN_LENGTH = 13;
+
     /**
      * Приватный конструктор для предотвращения создания экземпляров.
      */
@@ -51,24 +53,99 @@ public final class BookValidator {
 
     /**
      * Валидация ISBN - The International Standard Book Number.
+     * Строка проверяется за один проход по символам, без регулярных выражений и без создания новых строк
+     * (новые строки создаются только для сообщения об ошибке). Пробелы в начале и в конце не учитываются.
+     * Контрольная цифра не проверяется, потому что в библиотеке допустимы ISBN с буквами,
+     * см. {@link #validateIsbn13CheckDigit(String)}.
      *
      * @throws IllegalArgumentException если isbn null, empty, длине не равна 13 символам
      *                                  или содержит специальные символы
      */
     public static void validateIsbn(String isbn) {
-        if (isbn == null || isbn.trim().isEmpty()) {
+        int start = isbn == null ? 0 : trimStart(isbn);
+        int end = isbn == null ? 0 : trimEnd(isbn, start);
+
+        if (start == end) {
             throw new IllegalArgumentException("The International Standard Book Number field must not be empty. " +
                     "Enter the International Standard Book Number.");
         }
 
-        if (isbn.trim().length() != 13) {
+        if (end - start != ISBN_LENGTH) {
             throw new IllegalArgumentException(String.format("The International Standard Book Number was entered incorrectly (ISBN-13). " +
                     "You entered: %s. Please enter the correct International Standard Book Number (13 symbols).", isbn));
         }
 
-        if (!isbn.trim().matches("[A-Za-z0-9]{13}")) {
-            throw new IllegalArgumentException(
-                    "ISBN must contain only letters and digits. Got: " + isbn.trim());
+        for (int i = start; i < end; i++) {
+            if (!isLetterOrDigit(isbn.charAt(i))) {
+                throw new IllegalArgumentException(
+                        "ISBN must contain only letters and digits. Got: " + isbn.trim());
+            }
+        }
+    }
+
+    /**
+     * Валидация ISBN-13 вместе с контрольной цифрой: ISBN должен состоять из 13 цифр,
+     * а сумма цифр с весами 1 и 3 по очереди должна делиться на 10.
+     *
+     * @throws IllegalArgumentException если isbn не проходит {@link #validateIsbn(String)},
+     *                                  содержит буквы или контрольная цифра неверна
+     */
+    public static void validateIsbn13CheckDigit(String isbn) {
+        validateIsbn(isbn);
+        int start = trimStart(isbn);
+
+        for (int i = start; i < start + ISBN_LENGTH; i++) {
+            if (!isDigit(isbn.charAt(i))) {
+                throw new IllegalArgumentException("ISBN-13 must contain only digits to have a check digit. Got: " + isbn.trim());
+            }
+        }
+
+        int expected = isbn13CheckDigit(isbn, start);
+        if (isbn.charAt(start + ISBN_LENGTH - 1) - '0' != expected) {
+            throw new IllegalArgumentException(String.format(
+                    "ISBN-13 check digit is incorrect. Got: %s, expected check digit: %d", isbn.trim(), expected));
+        }
+    }
+
+    /**
+     * Вычисляет контрольную цифру ISBN-13 по первым 12 цифрам, начиная с позиции start.
+     */
+    static int isbn13CheckDigit(CharSequence digits, int start) {
+        int sum = 0;
+        for (int i = 0; i < ISBN_LENGTH - 1; i++) {
+            int digit = digits.charAt(start + i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Индекс первого символа без пробелов в начале, по правилам String.trim().
+     */
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
         }
+        return start;
+    }
+
+    /**
+     * Индекс после последнего символа без пробелов в конце, по правилам String.trim().
+     */
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isDigit(c) || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
     }
 }
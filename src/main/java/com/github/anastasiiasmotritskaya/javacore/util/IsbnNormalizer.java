@@ -0,0 +1,76 @@
+package com.github.anastasiiasmotritskaya.javacore.util;
+
+/**
+ * Приведение ISBN к виду ISBN-13 из 13 цифр без разделителей.
+ * Принимает ISBN-10 и ISBN-13 с дефисами и пробелами, например "0-306-40615-2" или "978-0-306-40615-7".
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+public final class IsbnNormalizer {
+    private static final String ISBN_13_PREFIX = "978";
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров.
+     */
+    private IsbnNormalizer() {
+    }
+
+    /**
+     * Приводит ISBN-10 или ISBN-13 к ISBN-13.
+     * Для ISBN-10 проверяется его контрольная цифра (последний символ может быть X),
+     * затем добавляется префикс 978 и вычисляется новая контрольная цифра ISBN-13.
+     *
+     * @param isbn ISBN-10 или ISBN-13, дефисы и пробелы допускаются
+     * @return String - ISBN-13 из 13 цифр
+     * @throws IllegalArgumentException если isbn null или empty, содержит другие символы,
+     *                                  количество цифр не равно 10 или 13 или контрольная цифра неверна
+     */
+    public static String toIsbn13(String isbn) {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            throw new IllegalArgumentException("ISBN must not be null or empty.");
+        }
+
+        StringBuilder digits = new StringBuilder(ISBN_13_PREFIX.length() + 10);
+        digits.append(ISBN_13_PREFIX);
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (BookValidator.isDigit(c) || ((c == 'X' || c == 'x') && digits.length() == ISBN_13_PREFIX.length() + 9)) {
+                digits.append(c);
+            } else if (c != '-' && c != ' ') {
+                throw new IllegalArgumentException("ISBN must contain only digits, hyphens and spaces. Got: " + isbn);
+            }
+        }
+
+        int length = digits.length() - ISBN_13_PREFIX.length();
+        if (length == 13) {
+            String isbn13 = digits.substring(ISBN_13_PREFIX.length());
+            BookValidator.validateIsbn13CheckDigit(isbn13);
+            return isbn13;
+        }
+        if (length != 10) {
+            throw new IllegalArgumentException("ISBN must have 10 or 13 digits. Got: " + isbn);
+        }
+
+        if (!isValidIsbn10(digits, ISBN_13_PREFIX.length())) {
+            throw new IllegalArgumentException("ISBN-10 check digit is incorrect. Got: " + isbn);
+        }
+        digits.setLength(digits.length() - 1);
+        digits.append(BookValidator.isbn13CheckDigit(digits, 0));
+        return digits.toString();
+    }
+
+    /**
+     * Проверяет контрольную сумму ISBN-10: сумма цифр с весами от 10 до 1 должна делиться на 11.
+     * Вспомогательный метод
+     */
+    private static boolean isValidIsbn10(CharSequence digits, int start) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = digits.charAt(start + i);
+            int digit = (c == 'X' || c == 'x') ? 10 : c - '0';
+            sum += (10 - i) * digit;
+        }
+        return sum % 11 == 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.anastasiiasmotritskaya.javacore.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Поток вывода, ограничивающий скорость записи заданным количеством байт в секунду.
+ * Если данные записываются быстрее, поток приостанавливается до тех пор, пока средняя скорость
+ * не вернётся к допустимой. Используется, чтобы запись больших файлов не занимала весь диск.
+ *
+ * @author Анастасия Смотрицкая
+ * @version 1.0
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+    private final long maxBytesPerSecond;
+    private final long startNanos;
+    private long bytesWritten;
+
+    /**
+     * @param out               поток, в который записываются данные
+     * @param maxBytesPerSecond максимальная скорость записи, байт в секунду (больше 0)
+     * @throws IllegalArgumentException если maxBytesPerSecond меньше или равен 0
+     */
+    public ThrottledOutputStream(OutputStream out, long maxBytesPerSecond) {
+        super(out);
+        if (maxBytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Max bytes per second must be greater than 0. Got: " + maxBytesPerSecond);
+        }
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        throttle(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        throttle(len);
+    }
+
+    /**
+     * Приостанавливает запись, если записано больше байт, чем допускает скорость за прошедшее время.
+     * Вспомогательный метод
+     */
+    private void throttle(int written) throws IOException {
+        bytesWritten += written;
+        long expectedNanos = (long) (bytesWritten * 1_000_000_000.0 / maxBytesPerSecond);
+        long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (aheadNanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Throttled write was interrupted.");
+        }
+    }
+}
@@ -141,6 +141,32 @@ public class CollectionsTest {
         );
     }
 
+    @Test
+    @DisplayName("findBooksByYearRange should return books sorted by year and include the range borders")
+    public void findBooksByYearRangeBordersTest() {
+        List<Book> books = threeBooksLibrary.findBooksByYearRange(1847, 1977);
+
+        assertEquals(2, books.size());
+        assertEquals("KU7K3MBQV9LU8", books.get(0).getIsbn());
+        assertEquals("KU7K3MBQV9LU6", books.get(1).getIsbn());
+    }
+
+    @Test
+    @DisplayName("findBooksByYearRange should take into account added and deleted books")
+    public void findBooksByYearRangeAfterAddAndDeleteTest() {
+        Book newBook = new Book("The Long Walk", "Richard Bachman", 1979, "KU7K3MBQV9LU0");
+        threeBooksLibrary.addBook(newBook);
+
+        assertEquals(List.of(newBook), threeBooksLibrary.findBooksByYearRange(1978, 1980));
+
+        threeBooksLibrary.deleteBook("KU7K3MBQV9LU0");
+        threeBooksLibrary.removeBooksByAuthor("Emily Brontë");
+
+        assertEquals(new ArrayList<>(), threeBooksLibrary.findBooksByYearRange(1978, 1980));
+        assertEquals(new ArrayList<>(), threeBooksLibrary.findBooksByYearRange(1800, 1900));
+        assertEquals(2, threeBooksLibrary.findBooksByYearRange(1950, 2000).size());
+    }
+
     @Test
     @DisplayName("getAllUniqueAuthors should return an empty set if the library is empty")
     public void getAllUniqueAuthorsEmptyLibraryTest() {
@@ -11,6 +11,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import java.io.IOException;
+import java.util.List;
 
 import static com.github.anastasiiasmotritskaya.javacore.oop.BookStatus.RESERVED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -44,6 +45,19 @@ public class ExceptionsTest {
         assertEquals(expectedMessage, exception.getMessage());
     }
 
+    @Test
+    @DisplayName("BookAlreadyExistsException(List<String> isbns) constructor test")
+    public void BookAlreadyExistsListExceptionTest() {
+        List<String> isbns = List.of("KU7K3MBQV9LU7", "KU7K3MBQV9LU8");
+        String expectedMessage = "2 books already exist or are repeated. ISBNs: KU7K3MBQV9LU7, KU7K3MBQV9LU8.";
+
+        BookAlreadyExistsException exception = new BookAlreadyExistsException(isbns);
+
+        assertTrue(exception instanceof LibraryException);
+        assertEquals(expectedMessage, exception.getMessage());
+        assertEquals(isbns, exception.getIsbns());
+    }
+
     @Test
     @DisplayName("BookNotAvailableException(String isbn, BookStatus status) constructor test")
     public void BookNotAvailableExceptionTest() {
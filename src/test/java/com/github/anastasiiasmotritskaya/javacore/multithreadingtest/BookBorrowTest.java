@@ -0,0 +1,154 @@
+package com.github.anastasiiasmotritskaya.javacore.multithreadingtest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotAvailableException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotBorrowedException;
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.BookStatus;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Epic("Java Core")
+@Feature("Multithreading")
+@Story("Borrowing books under contention")
+public class BookBorrowTest {
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 10_000;
+    private static final int POPULAR_BOOKS = 4;
+
+    @Test
+    @DisplayName("Only one of the threads racing to borrow the same book wins")
+    public void borrowSameBookOnlyOneWinsTest() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Book book = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+            AtomicInteger winners = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++) {
+                final String borrower = "Reader " + i;
+                Thread t = new Thread(() -> {
+                    try {
+                        start.await();
+                        book.borrow(borrower);
+                        winners.incrementAndGet();
+                    } catch (BookNotAvailableException | InterruptedException ignored) {
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+
+            start.countDown();
+            for (Thread t : threads) {
+                t.join();
+            }
+
+            assertEquals(1, winners.get());
+            assertEquals(BookStatus.BORROWED, book.getStatus());
+            assertTrue(book.getCurrentBorrower().startsWith("Reader "));
+        }
+    }
+
+    @Test
+    @DisplayName("Status and borrower always change together when threads borrow and return the same books")
+    public void borrowAndReturnKeepStateConsistentTest() throws InterruptedException {
+        List<Book> popularBooks = createPopularBooks();
+        AtomicInteger borrowed = new AtomicInteger();
+        AtomicInteger returned = new AtomicInteger();
+        AtomicInteger inconsistent = new AtomicInteger();
+
+        runInThreads(threadId -> {
+            String borrower = "Reader " + threadId;
+            for (int j = 0; j < ITERATIONS; j++) {
+                Book book = popularBooks.get(j % POPULAR_BOOKS);
+                try {
+                    book.borrow(borrower);
+                    borrowed.incrementAndGet();
+                    if (!borrower.equals(book.getCurrentBorrower())) {
+                        inconsistent.incrementAndGet();
+                    }
+                    book.returnBook();
+                    returned.incrementAndGet();
+                } catch (BookNotAvailableException | BookNotBorrowedException ignored) {
+                }
+            }
+        });
+
+        assertEquals(0, inconsistent.get());
+        assertEquals(borrowed.get(), returned.get());
+        for (Book book : popularBooks) {
+            assertEquals(BookStatus.AVAILABLE, book.getStatus());
+            assertNull(book.getCurrentBorrower());
+        }
+    }
+
+    @Test
+    @DisplayName("Every borrowing of a popular book from several threads should either succeed or be rejected")
+    public void borrowContentionTest() throws InterruptedException {
+        List<Book> popularBooks = createPopularBooks();
+        AtomicInteger successful = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runInThreads(threadId -> {
+            String borrower = "Reader " + threadId;
+            for (int j = 0; j < ITERATIONS; j++) {
+                Book book = popularBooks.get((threadId + j) % POPULAR_BOOKS);
+                try {
+                    book.borrow(borrower);
+                    book.returnBook();
+                    successful.incrementAndGet();
+                } catch (BookNotAvailableException | BookNotBorrowedException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(THREADS * ITERATIONS, successful.get() + rejected.get());
+        assertTrue(successful.get() > 0);
+        for (Book book : popularBooks) {
+            assertEquals(BookStatus.AVAILABLE, book.getStatus());
+        }
+    }
+
+    private static List<Book> createPopularBooks() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < POPULAR_BOOKS; i++) {
+            books.add(new Book("Popular book " + i, "Richard Bachman", 1977, "KU7K3MBQV9LU" + i));
+        }
+        return books;
+    }
+
+    /**
+     * Запускает {@value #THREADS} потоков с общей задачей и дожидается их завершения
+     * Вспомогательный метод
+     */
+    private static void runInThreads(IntConsumer task) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            final int threadId = i;
+            threads.add(new Thread(() -> task.accept(threadId)));
+        }
+
+        for (Thread t : threads) {
+            t.start();
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.anastasiiasmotritskaya.javacore.multithreadingtest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookAlreadyExistsException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.ConcurrentLibrary;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Epic("Java Core")
+@Feature("Multithreading")
+@Story("Concurrent library testing")
+public class ConcurrentLibraryTest {
+    private static final int THREADS = 10;
+    private static final int ITERATIONS = 1000;
+    private static final int TOTAL = 10_000;
+
+    @Test
+    @DisplayName("ConcurrentLibrary preserves all books added from several threads")
+    public void addBookPreservesAllBooksTest() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+
+        runInThreads(value -> library.addBook(createBook(value)));
+
+        assertEquals(TOTAL, library.getAllBooks().size());
+        for (int i = 0; i < TOTAL; i++) {
+            assertEquals(createIsbn(i), library.findBookByISBN(createIsbn(i)).getIsbn());
+        }
+        assertEquals(ITERATIONS, library.findBookByAuthor("Author 3").size());
+        assertEquals(TOTAL, library.findBooksByYearRange(1900, 1999).size());
+    }
+
+    @Test
+    @DisplayName("Only one thread can add a book with the same ISBN")
+    public void addBookSameIsbnOnlyOneWinsTest() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runInThreads(value -> {
+            try {
+                library.addBook(createBook(value % ITERATIONS));
+                added.incrementAndGet();
+            } catch (BookAlreadyExistsException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(ITERATIONS, added.get());
+        assertEquals(TOTAL - ITERATIONS, rejected.get());
+        assertEquals(ITERATIONS, library.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("Indexes stay consistent when books are added and deleted from several threads")
+    public void addAndDeleteBookIndexesStayConsistentTest() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        AtomicInteger notFound = new AtomicInteger();
+
+        runInThreads(value -> {
+            library.addBook(createBook(value));
+            if (value % 2 == 0) {
+                try {
+                    library.deleteBook(createIsbn(value));
+                } catch (BookNotFoundException e) {
+                    notFound.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(0, notFound.get());
+        assertEquals(TOTAL / 2, library.getAllBooks().size());
+        assertEquals(TOTAL / 2, library.findBooksByYearRange(1900, 1999).size());
+        for (Book book : library.findBookByAuthor("Author 1")) {
+            assertTrue(Integer.parseInt(book.getIsbn().substring(2)) % 2 == 1);
+        }
+    }
+
+    @Test
+    @DisplayName("removeBooksByAuthor called from several threads counts every removed book exactly once")
+    public void removeBooksByAuthorCountsEachBookOnceTest() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        for (int i = 0; i < TOTAL; i++) {
+            library.addBook(createBook(i));
+        }
+        AtomicInteger removed = new AtomicInteger();
+
+        runInThreads(value -> removed.addAndGet(library.removeBooksByAuthor("Author " + value % 2)));
+
+        assertEquals(TOTAL / THREADS * 2, removed.get());
+        assertEquals(TOTAL - TOTAL / THREADS * 2, library.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("Readers never see missing books while other threads add new ones")
+    public void readersDuringWritesTest() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        for (int i = 0; i < ITERATIONS; i++) {
+            library.addBook(createBook(TOTAL + i));
+        }
+        AtomicInteger failedReads = new AtomicInteger();
+
+        runInThreads(value -> {
+            if (value % 2 == 0) {
+                library.addBook(createBook(value));
+            } else if (library.findBookByISBN(createIsbn(TOTAL + value % ITERATIONS)) == null) {
+                failedReads.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, failedReads.get());
+        assertEquals(ITERATIONS + TOTAL / 2, library.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("ConcurrentLibrary should end up with the same books as a synchronized Library written from several threads")
+    public void concurrentMatchesSynchronizedLibraryTest() throws InterruptedException {
+        Library library = new Library();
+        runInThreads(value -> {
+            synchronized (library) {
+                library.addBook(createBook(value));
+                library.findBookByISBN(createIsbn(value));
+            }
+        });
+
+        ConcurrentLibrary concurrentLibrary = new ConcurrentLibrary();
+        runInThreads(value -> {
+            concurrentLibrary.addBook(createBook(value));
+            concurrentLibrary.findBookByISBN(createIsbn(value));
+        });
+
+        assertEquals(TOTAL, concurrentLibrary.getAllBooks().size());
+        assertEquals(library.getAllBooks().keySet(), concurrentLibrary.getAllBooks().keySet());
+    }
+
+    /**
+     * Запускает {@value #THREADS} потоков, каждый из которых вызывает action {@value #ITERATIONS} раз
+     * для своего диапазона значений, и дожидается их завершения
+     * Вспомогательный метод
+     */
+    private static void runInThreads(IntConsumer action) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            final int threadId = i;
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < ITERATIONS; j++) {
+                    action.accept(threadId * ITERATIONS + j);
+                }
+            });
+            threads.add(t);
+        }
+
+        for (Thread t : threads) {
+            t.start();
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    private static Book createBook(int value) {
+        return new Book("Title " + value, "Author " + value % THREADS, 1900 + value % 100, createIsbn(value));
+    }
+
+    private static String createIsbn(int value) {
+        return String.format("KU%011d", value);
+    }
+}
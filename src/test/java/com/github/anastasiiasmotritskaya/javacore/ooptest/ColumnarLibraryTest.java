@@ -0,0 +1,174 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookAlreadyExistsException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotAvailableException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotBorrowedException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
+import com.github.anastasiiasmotritskaya.javacore.oop.*;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.isbnSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Columnar library testing")
+public class ColumnarLibraryTest {
+    @TempDir
+    Path tempDir;
+
+    private ColumnarLibrary library;
+
+    @BeforeEach
+    void setUp() {
+        library = new ColumnarLibrary();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "9780306406157"));
+        library.addBook(new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8", "drama"));
+        library.addBook(new TechnicalBook("Physics for beginners", "John Smith", 2001,
+                "0000000000001", "physics", DifficultyLevel.BEGINNER));
+    }
+
+    @Test
+    @DisplayName("findBookByISBN should rebuild books of every type from the columns")
+    public void findBookByIsbnTest() {
+        Book book = library.findBookByISBN("9780306406157");
+        FictionBook fiction = (FictionBook) library.findBookByISBN("KU7K3MBQV9LU8");
+        TechnicalBook technical = (TechnicalBook) library.findBookByISBN("0000000000001");
+
+        assertEquals("The Running Man", book.getTitle());
+        assertEquals("Richard Bachman", book.getAuthor());
+        assertEquals(1982, book.getYear());
+        assertEquals("9780306406157", book.getIsbn());
+        assertEquals(BookStatus.AVAILABLE, book.getStatus());
+        assertEquals("drama", fiction.getGenre());
+        assertEquals("physics", technical.getSubject());
+        assertEquals(DifficultyLevel.BEGINNER, technical.getDifficultyLevel());
+        assertEquals(4, library.size());
+        assertThrows(BookNotFoundException.class, () -> library.findBookByISBN("0000000000002"));
+        assertThrows(BookAlreadyExistsException.class,
+                () -> library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6")));
+    }
+
+    @Test
+    @DisplayName("borrowBook and returnBook should change the status column")
+    public void borrowAndReturnTest() {
+        library.borrowBook("KU7K3MBQV9LU6", " Reader ");
+
+        Book borrowed = library.findBookByISBN("KU7K3MBQV9LU6");
+        assertEquals(BookStatus.BORROWED, borrowed.getStatus());
+        assertEquals("Reader", borrowed.getCurrentBorrower());
+        assertEquals(Map.of(BookStatus.AVAILABLE, 3, BookStatus.BORROWED, 1), library.countBooksByStatus());
+        assertThrows(BookNotAvailableException.class, () -> library.borrowBook("KU7K3MBQV9LU6", "Other"));
+        assertThrows(BookNotBorrowedException.class, () -> library.returnBook("9780306406157"));
+        assertThrows(IllegalArgumentException.class, () -> library.borrowBook("9780306406157", " "));
+
+        library.returnBook("KU7K3MBQV9LU6");
+        assertEquals(BookStatus.AVAILABLE, library.findBookByISBN("KU7K3MBQV9LU6").getStatus());
+        assertNull(library.findBookByISBN("KU7K3MBQV9LU6").getCurrentBorrower());
+    }
+
+    @Test
+    @DisplayName("Scans by author and year should return the same books as the usual library")
+    public void scansTest() {
+        assertEquals(Set.of("KU7K3MBQV9LU6", "9780306406157"), isbnSet(library.findBookByAuthor("richard bachman")));
+        assertTrue(library.findBookByAuthor("Stephen King").isEmpty());
+        assertEquals(Set.of("KU7K3MBQV9LU6", "9780306406157", "0000000000001"),
+                isbnSet(library.findBooksByYearRange(1900, 2020)));
+        assertEquals(3, library.countBooksByYearRange(1900, 2020));
+        assertEquals(Set.of("Richard Bachman", "Emily Brontë", "John Smith"), library.getAllUniqueAuthors());
+        assertThrows(IllegalArgumentException.class, () -> library.countBooksByYearRange(2000, 1990));
+    }
+
+    @Test
+    @DisplayName("deleteBook should move the last book into the freed row and keep every ISBN reachable")
+    public void deleteBookTest() {
+        library.borrowBook("0000000000001", "Reader");
+        library.deleteBook("KU7K3MBQV9LU6");
+
+        assertEquals(3, library.size());
+        assertThrows(BookNotFoundException.class, () -> library.findBookByISBN("KU7K3MBQV9LU6"));
+        assertEquals("Reader", library.findBookByISBN("0000000000001").getCurrentBorrower());
+        assertEquals(Set.of("9780306406157", "KU7K3MBQV9LU8", "0000000000001"), library.getAllBooks().keySet());
+        assertThrows(BookNotFoundException.class, () -> library.deleteBook("KU7K3MBQV9LU6"));
+    }
+
+    @Test
+    @DisplayName("ColumnarLibrary should behave like the usual library under random adds and deletes")
+    public void randomAddAndDeleteTest() {
+        ColumnarLibrary columnar = new ColumnarLibrary();
+        Set<String> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int operation = 0; operation < 50_000; operation++) {
+            int number = random.nextInt(3000);
+            String isbn = number % 2 == 0 ? String.format("978%010d", number) : String.format("KU%011d", number);
+            if (expected.contains(isbn)) {
+                columnar.deleteBook(isbn);
+                expected.remove(isbn);
+            } else {
+                columnar.addBook(new Book("Title", "Author", 2000, isbn));
+                expected.add(isbn);
+            }
+        }
+
+        assertEquals(expected, columnar.getAllBooks().keySet());
+        for (String isbn : expected) {
+            assertEquals(isbn, columnar.findBookByISBN(isbn).getIsbn());
+        }
+    }
+
+    @Test
+    @DisplayName("ColumnarLibrary should load books from a json file saved by the usual library")
+    public void loadFromJsonFileTest() {
+        Library source = new Library();
+        source.addBook(new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9"));
+        source.addBook(new FictionBook("The Long Walk", "Richard Bachman", 1979, "KU7K3MBQV9LU0", "dystopia"));
+        source.borrowBook("KU7K3MBQV9LU9", "Reader");
+        Path filePath = tempDir.resolve("library.json");
+        source.saveToNewJsonFile(String.valueOf(filePath), JsonSaveMode.COMPACT);
+
+        library.loadFromJsonFile(String.valueOf(filePath));
+
+        assertEquals(2, library.size());
+        assertEquals(Set.of("Charlotte Brontë", "Richard Bachman"), library.getAllUniqueAuthors());
+        assertEquals("Reader", library.findBookByISBN("KU7K3MBQV9LU9").getCurrentBorrower());
+        assertEquals("dystopia", ((FictionBook) library.findBookByISBN("KU7K3MBQV9LU0")).getGenre());
+        assertEquals(source.countBooksByStatus(), library.countBooksByStatus());
+    }
+
+    @Test
+    @DisplayName("The columnar library should give the same scan results as the usual library")
+    public void columnarMatchesLibraryTest() {
+        int size = 20_000;
+        Library usual = new Library();
+        ColumnarLibrary columnar = new ColumnarLibrary();
+        for (int i = 0; i < size; i++) {
+            String isbn = String.format("978%010d", i);
+            usual.addBook(new Book("Title " + i % 5_000, "Author " + i % 1000, 1900 + i % 100, isbn));
+            columnar.addBook(new Book("Title " + i % 5_000, "Author " + i % 1000, 1900 + i % 100, isbn));
+        }
+        for (int i = 0; i < size; i += 3) {
+            String isbn = String.format("978%010d", i);
+            usual.borrowBook(isbn, "Reader");
+            columnar.borrowBook(isbn, "Reader");
+        }
+
+        assertEquals(usual.findBooksByYearRange(1950, 1960).size(), columnar.countBooksByYearRange(1950, 1960));
+        assertEquals(isbnSet(usual.findBooksByYearRange(1950, 1960)), isbnSet(columnar.findBooksByYearRange(1950, 1960)));
+        assertEquals(usual.countBooksByStatus(), columnar.countBooksByStatus());
+        assertEquals(usual.getAllUniqueAuthors(), columnar.getAllUniqueAuthors());
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.InventoryNumberGenerator;
+import com.github.anastasiiasmotritskaya.javacore.oop.JsonSaveMode;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import com.github.anastasiiasmotritskaya.javacore.oop.LibraryItem;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Inventory number generation testing")
+public class InventoryNumberTest {
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void restoreGenerator() {
+        LibraryItem.setInventoryNumberGenerator(InventoryNumberGenerator.secureRandom());
+    }
+
+    @Test
+    @DisplayName("getInventoryNumber should return the same number on every call")
+    public void inventoryNumberIsStableTest() {
+        Book book = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+
+        assertEquals(book.getInventoryNumber(), book.getInventoryNumber());
+        assertNotEquals(book.getInventoryNumber(), new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6").getInventoryNumber());
+    }
+
+    @Test
+    @DisplayName("The sequential generator should number books in the order their numbers are requested")
+    public void sequentialGeneratorTest() {
+        LibraryItem.setInventoryNumberGenerator(InventoryNumberGenerator.sequential());
+        Book first = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        Book second = new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7");
+
+        assertEquals("00000000-0000-0000-0000-000000000001", second.getInventoryNumber());
+        assertEquals("00000000-0000-0000-0000-000000000002", first.getInventoryNumber());
+        assertEquals("00000000-0000-0000-0000-000000000001", second.getInventoryNumber());
+    }
+
+    @Test
+    @DisplayName("The fast random generator should create distinct version 4 UUIDs")
+    public void fastRandomGeneratorTest() {
+        InventoryNumberGenerator generator = InventoryNumberGenerator.fastRandom();
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String number = generator.next();
+            UUID uuid = UUID.fromString(number);
+            assertEquals(4, uuid.version());
+            assertEquals(2, uuid.variant());
+            numbers.add(number);
+        }
+        assertEquals(10_000, numbers.size());
+    }
+
+    @Test
+    @DisplayName("The inventory number saved to json should be restored after loading")
+    public void inventoryNumberJsonRoundTripTest() {
+        Book book = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        Path filePath = tempDir.resolve("library.json");
+        new Library(Map.of(book.getIsbn(), book)).saveToNewJsonFile(String.valueOf(filePath), JsonSaveMode.COMPACT);
+
+        Library loaded = new Library();
+        loaded.loadFromJsonFile(String.valueOf(filePath));
+
+        assertEquals(book.getInventoryNumber(), loaded.findBookByISBN("KU7K3MBQV9LU6").getInventoryNumber());
+    }
+
+    @Test
+    @DisplayName("setInventoryNumberGenerator should throw IllegalArgumentException if the generator is null")
+    public void nullGeneratorTest() {
+        assertThrows(IllegalArgumentException.class, () -> LibraryItem.setInventoryNumberGenerator(null));
+    }
+
+    @Test
+    @DisplayName("The generator should be called only for books whose inventory number is requested")
+    public void lazyInventoryNumberTest() {
+        AtomicInteger generated = new AtomicInteger();
+        InventoryNumberGenerator fastRandom = InventoryNumberGenerator.fastRandom();
+        LibraryItem.setInventoryNumberGenerator(() -> {
+            generated.incrementAndGet();
+            return fastRandom.next();
+        });
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            books.add(new Book());
+        }
+        assertEquals(0, generated.get());
+
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < books.size(); i += 2) {
+            numbers.add(books.get(i).getInventoryNumber());
+            books.get(i).getInventoryNumber();
+        }
+        assertEquals(500, generated.get());
+        assertEquals(500, numbers.size());
+    }
+}
@@ -0,0 +1,195 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.BookStatus;
+import com.github.anastasiiasmotritskaya.javacore.oop.JsonSaveMode;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library aggregate counters testing")
+public class LibraryAggregatesTest {
+    @TempDir
+    Path tempDir;
+
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+    }
+
+    @Test
+    @DisplayName("countBooksByStatus should follow borrowing, returning and status changes of the books")
+    public void countBooksByStatusFollowsBookChangesTest() {
+        library.borrowBook("KU7K3MBQV9LU6", "Reader");
+        library.findBookByISBN("KU7K3MBQV9LU7").borrow("Another reader");
+        library.findBookByISBN("KU7K3MBQV9LU8").setStatus(BookStatus.RESERVED);
+
+        assertEquals(Map.of(BookStatus.BORROWED, 2, BookStatus.RESERVED, 1), library.countBooksByStatus());
+
+        library.returnBook("KU7K3MBQV9LU6");
+        library.findBookByISBN("KU7K3MBQV9LU8").setStatus(BookStatus.RESERVED);
+
+        assertEquals(Map.of(BookStatus.AVAILABLE, 1, BookStatus.BORROWED, 1, BookStatus.RESERVED, 1),
+                library.countBooksByStatus());
+    }
+
+    @Test
+    @DisplayName("Aggregates should be updated when books are added, deleted and removed by author")
+    public void aggregatesFollowAddAndDeleteTest() {
+        Book borrowed = new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9");
+        borrowed.borrow("Reader");
+        library.addBook(borrowed);
+
+        assertEquals(Map.of(BookStatus.AVAILABLE, 3, BookStatus.BORROWED, 1), library.countBooksByStatus());
+        assertEquals(Set.of("Richard Bachman", "Emily Brontë", "Charlotte Brontë"), library.getAllUniqueAuthors());
+
+        library.deleteBook("KU7K3MBQV9LU6");
+        assertTrue(library.getAllUniqueAuthors().contains("Richard Bachman"));
+
+        library.removeBooksByAuthor("Richard Bachman");
+        library.deleteBook("KU7K3MBQV9LU9");
+        assertEquals(Set.of("Emily Brontë"), library.getAllUniqueAuthors());
+        assertEquals(Map.of(BookStatus.AVAILABLE, 1), library.countBooksByStatus());
+    }
+
+    @Test
+    @DisplayName("Deleted books and books replaced by loading should no longer change the counters")
+    public void removedBooksAreNotCountedTest() {
+        Book deleted = library.findBookByISBN("KU7K3MBQV9LU6");
+        library.deleteBook("KU7K3MBQV9LU6");
+        deleted.borrow("Reader");
+
+        Path filePath = tempDir.resolve("library.json");
+        new Library(Map.of("KU7K3MBQV9LU9", new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9")))
+                .saveToNewJsonFile(String.valueOf(filePath), JsonSaveMode.COMPACT);
+        Book replaced = library.findBookByISBN("KU7K3MBQV9LU7");
+        library.loadFromJsonFile(String.valueOf(filePath));
+        replaced.borrow("Reader");
+
+        assertEquals(Map.of(BookStatus.AVAILABLE, 1), library.countBooksByStatus());
+        assertEquals(Set.of("Charlotte Brontë"), library.getAllUniqueAuthors());
+    }
+
+    @Test
+    @DisplayName("A book shared by two libraries should be counted in both")
+    public void sharedBookTest() {
+        Book book = library.findBookByISBN("KU7K3MBQV9LU8");
+        Library other = new Library(Map.of(book.getIsbn(), book));
+
+        book.borrow("Reader");
+
+        assertEquals(1, library.countBooksByStatus().get(BookStatus.BORROWED));
+        assertEquals(Map.of(BookStatus.BORROWED, 1), other.countBooksByStatus());
+    }
+
+    @Test
+    @DisplayName("Books shared with libraries that are no longer used should not keep those libraries in memory")
+    public void droppedLibrariesAreNotKeptByBooksTest() throws InterruptedException {
+        Map<String, Book> books = new HashMap<>(library.getAllBooks());
+        List<WeakReference<Library>> dropped = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            dropped.add(new WeakReference<>(new Library(books)));
+        }
+
+        for (int attempt = 0; attempt < 50; attempt++) {
+            if (dropped.stream().allMatch(reference -> reference.get() == null)) {
+                break;
+            }
+            System.gc();
+            Thread.sleep(10);
+        }
+        library.findBookByISBN("KU7K3MBQV9LU6").borrow("Reader");
+
+        assertTrue(dropped.stream().allMatch(reference -> reference.get() == null));
+        assertEquals(Map.of(BookStatus.AVAILABLE, 2, BookStatus.BORROWED, 1), library.countBooksByStatus());
+        assertEquals(Map.of(BookStatus.AVAILABLE, 2, BookStatus.BORROWED, 1), new Library(books).countBooksByStatus());
+    }
+
+    @Test
+    @DisplayName("countBooksByStatus should stay exact when books are borrowed and returned from several threads")
+    public void countBooksByStatusConcurrentTest() throws Exception {
+        Library bigLibrary = createLibrary(1000, 1000);
+        List<Book> books = new ArrayList<>(bigLibrary.getAllBooks().values());
+        int threads = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        for (Book book : books) {
+                            try {
+                                book.borrow("Reader");
+                                book.returnBook();
+                            } catch (RuntimeException ignored) {
+                                // another thread has borrowed or returned this book first
+                            }
+                        }
+                        bigLibrary.countBooksByStatus();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int borrowed = (int) books.stream().filter(book -> book.getStatus() == BookStatus.BORROWED).count();
+        Map<BookStatus, Integer> counts = bigLibrary.countBooksByStatus();
+        assertEquals(1000, counts.values().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(borrowed, counts.getOrDefault(BookStatus.BORROWED, 0));
+    }
+
+    @Test
+    @DisplayName("The maintained counters should match counting over all books after books are changed")
+    public void countersMatchCountingOverAllBooksTest() {
+        Library bigLibrary = createLibrary(10_000, 1000);
+        for (int i = 0; i < 10_000; i += 3) {
+            bigLibrary.borrowBook(String.format("KU%011d", i), "Reader");
+        }
+        for (int i = 1; i < 10_000; i += 7) {
+            bigLibrary.findBookByISBN(String.format("KU%011d", i)).setStatus(BookStatus.RESERVED);
+        }
+        bigLibrary.removeBooksByAuthor("Author 5");
+
+        Map<BookStatus, Integer> statuses = new HashMap<>();
+        Set<String> authors = new HashSet<>();
+        for (Book book : bigLibrary.getAllBooks().values()) {
+            statuses.merge(book.getStatus(), 1, Integer::sum);
+            authors.add(book.getAuthor());
+        }
+
+        assertEquals(statuses, bigLibrary.countBooksByStatus());
+        assertEquals(authors, bigLibrary.getAllUniqueAuthors());
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.oop.*;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.assertBookMatches;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.isbnSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library binary format testing")
+public class LibraryBinaryFormatTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("saveToBinaryFile and loadFromBinaryFile should keep all kinds of books, statuses and borrowers")
+    public void binaryRoundTripTest() {
+        Book book = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        book.borrow("Reader");
+        FictionBook fictionBook = new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8", "Novel");
+        fictionBook.setStatus(BookStatus.RESERVED);
+        TechnicalBook technicalBook = new TechnicalBook("Effective Java", "Joshua Bloch", 2018, "KU7K3MBQV9LU9",
+                "Java", DifficultyLevel.ADVANCED);
+
+        Map<String, Book> books = new HashMap<>();
+        books.put(book.getIsbn(), book);
+        books.put(fictionBook.getIsbn(), fictionBook);
+        books.put(technicalBook.getIsbn(), technicalBook);
+
+        Path path = tempDir.resolve("library.bin");
+        new Library(books).saveToBinaryFile(String.valueOf(path));
+
+        Library loaded = new Library();
+        loaded.loadFromBinaryFile(String.valueOf(path));
+
+        assertEquals(3, loaded.getAllBooks().size());
+
+        Book loadedBook = loaded.findBookByISBN("KU7K3MBQV9LU6");
+        assertEquals(Book.class, loadedBook.getClass());
+        assertBookMatches(loadedBook, "Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        assertEquals(BookStatus.BORROWED, loadedBook.getStatus());
+        assertEquals("Reader", loadedBook.getCurrentBorrower());
+
+        FictionBook loadedFiction = assertInstanceOf(FictionBook.class, loaded.findBookByISBN("KU7K3MBQV9LU8"));
+        assertBookMatches(loadedFiction, "Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8");
+        assertEquals("Novel", loadedFiction.getGenre());
+        assertEquals(BookStatus.RESERVED, loadedFiction.getStatus());
+        assertNull(loadedFiction.getCurrentBorrower());
+
+        TechnicalBook loadedTechnical = assertInstanceOf(TechnicalBook.class, loaded.findBookByISBN("KU7K3MBQV9LU9"));
+        assertEquals("Java", loadedTechnical.getSubject());
+        assertEquals(DifficultyLevel.ADVANCED, loadedTechnical.getDifficultyLevel());
+
+        assertEquals(1, loaded.findBookByAuthor("emily brontë").size());
+        assertEquals(2, loaded.findBooksByYearRange(1900, 2020).size());
+    }
+
+    @Test
+    @DisplayName("Inventory numbers should survive a json to binary to library round trip")
+    public void binaryRoundTripInventoryNumberTest() {
+        Library source = new Library();
+        source.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        source.addBook(new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8", "Novel"));
+        Path jsonPath = tempDir.resolve("library.json");
+        source.saveToNewJsonFile(String.valueOf(jsonPath));
+
+        Library fromJson = new Library();
+        fromJson.loadFromJsonFile(String.valueOf(jsonPath));
+        Path binaryPath = tempDir.resolve("library.bin");
+        fromJson.saveToBinaryFile(String.valueOf(binaryPath));
+        Library fromBinary = new Library();
+        fromBinary.loadFromBinaryFile(String.valueOf(binaryPath));
+
+        for (String isbn : new String[]{"KU7K3MBQV9LU6", "KU7K3MBQV9LU8"}) {
+            assertEquals(source.findBookByISBN(isbn).getInventoryNumber(),
+                    fromBinary.findBookByISBN(isbn).getInventoryNumber());
+        }
+    }
+
+    @Test
+    @DisplayName("loadFromBinaryFile should read version 1 files without inventory numbers")
+    public void loadFromBinaryFileVersionOneTest() throws IOException {
+        Path path = tempDir.resolve("library-v1.bin");
+        byte[] key = "KU7K3MBQV9LU6".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{'J', 'C', 'L', 'B', 1, 1});
+        out.write(key.length + 1);
+        out.write(key);
+        out.write(0);
+        out.write(5);
+        out.write("Rage".getBytes(StandardCharsets.UTF_8));
+        out.write(16);
+        out.write("Richard Bachman".getBytes(StandardCharsets.UTF_8));
+        out.write(new byte[]{(byte) 0xF2, 0x1E});
+        out.write(key.length + 1);
+        out.write(key);
+        out.write(BookStatus.AVAILABLE.ordinal() + 1);
+        out.write(0);
+        Files.write(path, out.toByteArray());
+
+        Library loaded = new Library();
+        loaded.loadFromBinaryFile(String.valueOf(path));
+
+        Book book = loaded.findBookByISBN("KU7K3MBQV9LU6");
+        assertBookMatches(book, "Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        assertEquals(BookStatus.AVAILABLE, book.getStatus());
+        assertNotNull(book.getInventoryNumber());
+        assertEquals(book.getInventoryNumber(), book.getInventoryNumber());
+    }
+
+    @Test
+    @DisplayName("saveToBinaryFile should keep empty fields of books loaded from json")
+    public void binaryRoundTripEmptyFieldsTest() throws IOException {
+        Path jsonPath = tempDir.resolve("library.json");
+        Files.writeString(jsonPath, "{\"KU7K3MBQV9LU6\": {\"isbn\": \"KU7K3MBQV9LU6\", \"year\": 1977}}");
+        Library library = new Library();
+        library.loadFromJsonFile(String.valueOf(jsonPath));
+
+        Path path = tempDir.resolve("library.bin");
+        library.saveToBinaryFile(String.valueOf(path));
+        Library loaded = new Library();
+        loaded.loadFromBinaryFile(String.valueOf(path));
+
+        Book book = loaded.findBookByISBN("KU7K3MBQV9LU6");
+        assertNull(book.getTitle());
+        assertNull(book.getAuthor());
+        assertNull(book.getStatus());
+        assertEquals(1977, book.getYear());
+    }
+
+    @Test
+    @DisplayName("saveToBinaryFile should write an empty library that loads as an empty library")
+    public void binaryEmptyLibraryTest() {
+        Path path = tempDir.resolve("empty.bin");
+        new Library().saveToBinaryFile(String.valueOf(path));
+
+        Library loaded = new Library(Map.of("KU7K3MBQV9LU6", new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6")));
+        loaded.loadFromBinaryFile(String.valueOf(path));
+        assertTrue(loaded.getAllBooks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("loadFromBinaryFile should throw LibraryFileException and keep books if the file is not a binary catalogue")
+    public void loadFromBinaryFileWrongFormatTest() throws IOException {
+        Path path = tempDir.resolve("library.json");
+        Files.writeString(path, "{}");
+        Library library = new Library(Map.of("KU7K3MBQV9LU6", new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6")));
+
+        assertThrows(LibraryFileException.class, () -> library.loadFromBinaryFile(String.valueOf(path)));
+        assertEquals(1, library.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("loadFromBinaryFile should throw LibraryFileException if the file is cut off")
+    public void loadFromBinaryFileTruncatedTest() throws IOException {
+        Path path = tempDir.resolve("library.bin");
+        new Library(Map.of("KU7K3MBQV9LU6", new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6")))
+                .saveToBinaryFile(String.valueOf(path));
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 5));
+
+        Library library = new Library();
+        assertThrows(LibraryFileException.class, () -> library.loadFromBinaryFile(String.valueOf(path)));
+    }
+
+    @Test
+    @DisplayName("loadFromBinaryFile should throw LibraryFileException if the file doesn't exist")
+    public void loadFromBinaryFileNotExistsTest() {
+        Library library = new Library();
+        assertThrows(LibraryFileException.class,
+                () -> library.loadFromBinaryFile(String.valueOf(tempDir.resolve("missing.bin"))));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @DisplayName("saveToBinaryFile and loadFromBinaryFile should throw IllegalArgumentException if the file path is null or empty")
+    public void binaryNullOrEmptyPathTest(String filePath) {
+        Library library = new Library();
+        assertThrows(IllegalArgumentException.class, () -> library.saveToBinaryFile(filePath));
+        assertThrows(IllegalArgumentException.class, () -> library.loadFromBinaryFile(filePath));
+    }
+
+    @Test
+    @DisplayName("The binary file should be smaller than the json file and load the same books")
+    public void jsonVsBinaryLoadTest() throws IOException {
+        Library library = createLibrary(5_000, 1000);
+        Path jsonPath = tempDir.resolve("library.json");
+        Path binaryPath = tempDir.resolve("library.bin");
+        library.saveToNewJsonFile(String.valueOf(jsonPath), JsonSaveMode.COMPACT);
+        library.saveToBinaryFile(String.valueOf(binaryPath));
+
+        Library fromJson = new Library();
+        fromJson.loadFromJsonFile(String.valueOf(jsonPath));
+        Library fromBinary = new Library();
+        fromBinary.loadFromBinaryFile(String.valueOf(binaryPath));
+
+        assertTrue(Files.size(binaryPath) < Files.size(jsonPath));
+        assertEquals(library.getAllBooks().keySet(), fromBinary.getAllBooks().keySet());
+        assertEquals(fromJson.getAllBooks().keySet(), fromBinary.getAllBooks().keySet());
+        assertEquals(isbnSet(fromJson.findBookByAuthor("Author 7")), isbnSet(fromBinary.findBookByAuthor("Author 7")));
+    }
+}
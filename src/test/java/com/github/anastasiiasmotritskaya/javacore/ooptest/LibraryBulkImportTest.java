@@ -0,0 +1,115 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookAlreadyExistsException;
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library bulk import testing")
+public class LibraryBulkImportTest {
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+    }
+
+    @Test
+    @DisplayName("addBooks should add all books and update the indexes")
+    public void addBooksTest() {
+        library.getBooksSortedByYear();
+
+        library.addBooks(List.of(
+                new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"),
+                new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8")));
+
+        assertEquals(3, library.getAllBooks().size());
+        assertEquals(2, library.findBookByAuthor("Richard Bachman").size());
+        assertEquals("KU7K3MBQV9LU8", library.getBooksSortedByYear().get(0).getIsbn());
+        assertEquals(Set.of("Richard Bachman", "Emily Brontë"), library.getAllUniqueAuthors());
+    }
+
+    @Test
+    @DisplayName("addBooks should accept a stream of books")
+    public void addBooksStreamTest() {
+        library.addBooks(Stream.of(new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9")));
+
+        assertEquals("Jane Eyre", library.findBookByISBN("KU7K3MBQV9LU9").getTitle());
+    }
+
+    @Test
+    @DisplayName("addBooks should report all existing and repeated ISBNs together and add nothing")
+    public void addBooksConflictsTest() {
+        BookAlreadyExistsException exception = assertThrows(BookAlreadyExistsException.class, () -> library.addBooks(List.of(
+                new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"),
+                new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"),
+                new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"),
+                new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU7"))));
+
+        assertEquals(List.of("KU7K3MBQV9LU6", "KU7K3MBQV9LU7"), exception.getIsbns());
+        assertEquals(1, library.getAllBooks().size());
+        assertTrue(library.findBookByAuthor("Emily Brontë").isEmpty());
+    }
+
+    @Test
+    @DisplayName("addBooks should throw IllegalArgumentException for the first invalid book and add nothing")
+    public void addBooksInvalidBookTest() {
+        List<Book> batch = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            batch.add(new Book("Title " + i, "Author " + i, 2000, String.format("KU%011d", i)));
+        }
+        batch.set(15_000, new Book());
+        batch.set(17_000, null);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> library.addBooks(batch));
+
+        assertEquals("Title field should not be null or empty. Enter the title.", exception.getMessage());
+        assertEquals(1, library.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("addBooks should throw IllegalArgumentException if the books are null or contain null")
+    public void addBooksNullTest() {
+        assertThrows(IllegalArgumentException.class, () -> library.addBooks((List<Book>) null));
+        assertThrows(IllegalArgumentException.class, () -> library.addBooks((Stream<Book>) null));
+        assertThrows(IllegalArgumentException.class, () -> library.addBooks(Arrays.asList((Book) null)));
+    }
+
+    @Test
+    @DisplayName("Adding books in one batch should give the same library as adding them one by one")
+    public void addBooksMatchesAddBookTest() {
+        int size = 10_000;
+        List<Book> batch = new ArrayList<>(createLibrary(size, 1000).getAllBooks().values());
+
+        Library oneByOne = new Library();
+        for (Book book : batch) {
+            oneByOne.addBook(book);
+        }
+        Library bulk = new Library();
+        bulk.addBooks(batch);
+
+        assertEquals(size, bulk.getAllBooks().size());
+        assertEquals(oneByOne.getAllBooks().keySet(), bulk.getAllBooks().keySet());
+        assertEquals(oneByOne.getAllUniqueAuthors(), bulk.getAllUniqueAuthors());
+        assertEquals(oneByOne.countBooksByStatus(), bulk.countBooksByStatus());
+        assertEquals(oneByOne.findBookByAuthor("Author 7").size(), bulk.findBookByAuthor("Author 7").size());
+        assertEquals(oneByOne.findBooksByYearRange(1950, 1959).size(), bulk.findBooksByYearRange(1950, 1959).size());
+    }
+}
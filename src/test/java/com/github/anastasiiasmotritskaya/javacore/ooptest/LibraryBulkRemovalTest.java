@@ -0,0 +1,136 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.BookStatus;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.isbns;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library bulk removal testing")
+public class LibraryBulkRemovalTest {
+    @TempDir
+    Path tempDir;
+
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        library.addBook(new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9"));
+        library.addBook(new Book("Man's Search for Meaning", "Viktor Frankl", 1946, "KU7K3MBQV9LU0"));
+    }
+
+    @Test
+    @DisplayName("removeBooksByAuthors should remove the books of every author and report counts per author")
+    public void removeBooksByAuthorsTest() {
+        library.getBooksSortedByYear();
+        Set<String> authors = new LinkedHashSet<>(List.of("richard bachman", "Emily Brontë", "Stephen King"));
+
+        Map<String, Integer> removed = library.removeBooksByAuthors(authors);
+
+        assertEquals(Map.of("richard bachman", 2, "Emily Brontë", 1, "Stephen King", 0), removed);
+        assertEquals(Set.of("KU7K3MBQV9LU9", "KU7K3MBQV9LU0"), library.getAllBooks().keySet());
+        assertEquals(Set.of("Charlotte Brontë", "Viktor Frankl"), library.getAllUniqueAuthors());
+        assertEquals(List.of("KU7K3MBQV9LU9", "KU7K3MBQV9LU0"),
+                library.getBooksSortedByYear().stream().map(Book::getIsbn).toList());
+        assertTrue(library.searchAllTerms("bachman").isEmpty());
+    }
+
+    @Test
+    @DisplayName("removeBooksIf should remove the matching books and report counts per author")
+    public void removeBooksIfTest() {
+        library.borrowBook("KU7K3MBQV9LU8", "Reader");
+
+        Map<String, Integer> removed = library.removeBooksIf(book -> book.getYear() < 1950);
+
+        assertEquals(Map.of("Emily Brontë", 1, "Charlotte Brontë", 1, "Viktor Frankl", 1), removed);
+        assertEquals(Set.of("KU7K3MBQV9LU6", "KU7K3MBQV9LU7"), library.getAllBooks().keySet());
+        assertEquals(Map.of(BookStatus.AVAILABLE, 2), library.countBooksByStatus());
+        assertTrue(library.findBooksByYearRange(1800, 1950).isEmpty());
+        assertTrue(library.removeBooksIf(book -> false).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Bulk removals should be written to the journal and replayed")
+    public void bulkRemovalJournalTest() {
+        String snapshotPath = String.valueOf(tempDir.resolve("library.json"));
+        String journalPath = String.valueOf(tempDir.resolve("library.journal"));
+        library.saveToNewJsonFile(snapshotPath);
+
+        Library journaled = new Library();
+        journaled.openJournal(snapshotPath, journalPath);
+        journaled.removeBooksByAuthors(Set.of("Richard Bachman"));
+        journaled.removeBooksIf(book -> book.getTitle().startsWith("Jane"));
+        journaled.closeJournal();
+
+        Library replayed = new Library();
+        replayed.openJournal(snapshotPath, journalPath);
+        assertEquals(Set.of("KU7K3MBQV9LU8", "KU7K3MBQV9LU0"), replayed.getAllBooks().keySet());
+        replayed.closeJournal();
+    }
+
+    @Test
+    @DisplayName("Bulk removal methods should throw IllegalArgumentException for null or empty arguments")
+    public void bulkRemovalInvalidArgumentsTest() {
+        Set<String> withEmptyAuthor = new HashSet<>(List.of("Richard Bachman", " "));
+
+        assertThrows(IllegalArgumentException.class, () -> library.removeBooksByAuthors(null));
+        assertThrows(IllegalArgumentException.class, () -> library.removeBooksByAuthors(withEmptyAuthor));
+        assertThrows(IllegalArgumentException.class, () -> library.removeBooksIf((Predicate<Book>) null));
+        assertEquals(5, library.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("Removing many authors one by one, in one batch and by predicate should leave the same books")
+    public void bulkRemovalMatchesOneByOneTest() {
+        int size = 10_000;
+        Set<String> authors = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            authors.add("Author " + i);
+        }
+
+        Library oneByOne = createLibrary(size, 1000);
+        oneByOne.getBooksSortedByTitle();
+        for (String author : authors) {
+            oneByOne.removeBooksByAuthor(author);
+        }
+
+        Library batch = createLibrary(size, 1000);
+        batch.getBooksSortedByTitle();
+        batch.removeBooksByAuthors(authors);
+
+        Library byPredicate = createLibrary(size, 1000);
+        byPredicate.getBooksSortedByTitle();
+        byPredicate.removeBooksIf(book -> authors.contains(book.getAuthor()));
+
+        assertEquals(size / 2, batch.getAllBooks().size());
+        assertEquals(oneByOne.getAllBooks().keySet(), batch.getAllBooks().keySet());
+        assertEquals(oneByOne.getAllBooks().keySet(), byPredicate.getAllBooks().keySet());
+        assertEquals(isbns(oneByOne.getBooksSortedByTitle()), isbns(batch.getBooksSortedByTitle()));
+        assertEquals(isbns(oneByOne.getBooksSortedByTitle()), isbns(byPredicate.getBooksSortedByTitle()));
+        assertEquals(oneByOne.getAllUniqueAuthors(), batch.getAllUniqueAuthors());
+        assertEquals(oneByOne.getAllUniqueAuthors(), byPredicate.getAllUniqueAuthors());
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookAlreadyExistsException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.JsonSaveMode;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library with compact ISBN keys testing")
+public class LibraryCompactIsbnKeysTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Library with compact ISBN keys should store digit and alphanumeric ISBNs")
+    public void digitAndAlphanumericIsbnTest() {
+        Library library = Library.withCompactIsbnKeys();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "0000000000001"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "9780306406157"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+
+        assertEquals("Rage", library.findBookByISBN("0000000000001").getTitle());
+        assertEquals("The Running Man", library.findBookByISBN("9780306406157").getTitle());
+        assertEquals("Wuthering Heights", library.findBookByISBN("KU7K3MBQV9LU8").getTitle());
+        assertEquals(Set.of("0000000000001", "9780306406157", "KU7K3MBQV9LU8"), library.getAllBooks().keySet());
+        assertThrows(BookNotFoundException.class, () -> library.findBookByISBN("0000000000002"));
+        assertThrows(BookAlreadyExistsException.class,
+                () -> library.addBook(new Book("Rage", "Richard Bachman", 1977, "0000000000001")));
+
+        library.deleteBook("0000000000001");
+        library.deleteBook("KU7K3MBQV9LU8");
+        assertEquals(Set.of("9780306406157"), library.getAllBooks().keySet());
+    }
+
+    @Test
+    @DisplayName("Library with compact ISBN keys should behave like the usual library under random adds and deletes")
+    public void randomAddAndDeleteTest() {
+        Library compact = Library.withCompactIsbnKeys();
+        Set<String> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int operation = 0; operation < 50_000; operation++) {
+            String isbn = String.format("978%010d", random.nextInt(3000));
+            if (expected.contains(isbn)) {
+                compact.deleteBook(isbn);
+                expected.remove(isbn);
+            } else {
+                compact.addBook(new Book("Title", "Author", 2000, isbn));
+                expected.add(isbn);
+            }
+            if (operation % 5000 == 0) {
+                assertEquals(expected, compact.getAllBooks().keySet());
+            }
+        }
+
+        assertEquals(expected, compact.getAllBooks().keySet());
+        for (int i = 0; i < 3000; i++) {
+            String isbn = String.format("978%010d", i);
+            if (expected.contains(isbn)) {
+                assertEquals(isbn, compact.findBookByISBN(isbn).getIsbn());
+            } else {
+                assertThrows(BookNotFoundException.class, () -> compact.findBookByISBN(isbn));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Library with compact ISBN keys should keep compact keys after loading and bulk import")
+    public void loadAndBulkImportTest() {
+        Library library = new Library();
+        for (int i = 0; i < 1000; i++) {
+            library.addBook(new Book("Title " + i, "Author " + i % 10, 2000, String.format("%013d", i)));
+        }
+        Path filePath = tempDir.resolve("library.json");
+        library.saveToNewJsonFile(String.valueOf(filePath), JsonSaveMode.COMPACT);
+
+        Library compact = Library.withCompactIsbnKeys();
+        compact.loadFromJsonFile(String.valueOf(filePath));
+        compact.addBooks(library.getAllBooks().values().stream()
+                .map(book -> new Book(book.getTitle(), book.getAuthor(), book.getYear(), "9" + book.getIsbn().substring(1))));
+
+        assertEquals(2000, compact.getAllBooks().size());
+        assertEquals(200, compact.findBookByAuthor("Author 3").size());
+        assertEquals("Title 999", compact.findBookByISBN("9000000000999").getTitle());
+    }
+
+    @Test
+    @DisplayName("Library with compact ISBN keys should find the same books as the library with String keys")
+    public void compactKeysLookupMatchesStringKeysTest() {
+        int size = 10_000;
+        Library usual = new Library();
+        Library compact = Library.withCompactIsbnKeys();
+        List<String> lookups = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Book book = new Book("T", "A", 2000, String.format("978%010d", i));
+            usual.addBook(book);
+            compact.addBook(book);
+            lookups.add(new String(book.getIsbn()));
+        }
+        Collections.shuffle(lookups, new Random(42));
+
+        for (String isbn : lookups) {
+            assertSame(usual.findBookByISBN(isbn), compact.findBookByISBN(isbn));
+        }
+        String missing = String.format("978%010d", size);
+        assertThrows(BookNotFoundException.class, () -> usual.findBookByISBN(missing));
+        assertThrows(BookNotFoundException.class, () -> compact.findBookByISBN(missing));
+    }
+}
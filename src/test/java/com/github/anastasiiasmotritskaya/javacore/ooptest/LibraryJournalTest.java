@@ -0,0 +1,335 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.BookStatus;
+import com.github.anastasiiasmotritskaya.javacore.oop.JsonSaveMode;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.assertBookMatches;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library journal testing")
+public class LibraryJournalTest {
+    private String snapshotPath;
+    private String journalPath;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        snapshotPath = String.valueOf(tempDir.resolve("library.json"));
+        journalPath = String.valueOf(tempDir.resolve("library.journal"));
+    }
+
+    @Test
+    @DisplayName("openJournal should start with an empty library if there is no snapshot and no journal")
+    public void openJournalEmptyTest() {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+
+        assertTrue(library.getAllBooks().isEmpty());
+        assertTrue(Files.exists(Path.of(journalPath)));
+        library.closeJournal();
+    }
+
+    @Test
+    @DisplayName("Changes written to the journal should be restored when the journal is opened again")
+    public void openJournalReplaysChangesTest() {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        library.borrowBook("KU7K3MBQV9LU8", "Reader");
+        library.deleteBook("KU7K3MBQV9LU6");
+        library.closeJournal();
+
+        assertFalse(Files.exists(Path.of(snapshotPath)));
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+
+        assertEquals(2, restored.getAllBooks().size());
+        assertFalse(restored.getAllBooks().containsKey("KU7K3MBQV9LU6"));
+        Book borrowed = restored.findBookByISBN("KU7K3MBQV9LU8");
+        assertBookMatches(borrowed, "Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8");
+        assertEquals(BookStatus.BORROWED, borrowed.getStatus());
+        assertEquals("Reader", borrowed.getCurrentBorrower());
+        assertEquals(1, restored.findBookByAuthor("richard bachman").size());
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("Returning books and removing books by author should be restored from the journal")
+    public void openJournalReplaysReturnAndRemoveByAuthorTest() {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        library.borrowBook("KU7K3MBQV9LU8", "Reader");
+        library.returnBook("KU7K3MBQV9LU8");
+        assertEquals(2, library.removeBooksByAuthor("Richard Bachman"));
+        library.closeJournal();
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+
+        assertEquals(1, restored.getAllBooks().size());
+        Book book = restored.findBookByISBN("KU7K3MBQV9LU8");
+        assertEquals(BookStatus.AVAILABLE, book.getStatus());
+        assertNull(book.getCurrentBorrower());
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("Status changes made through the methods of the book should be restored from the journal")
+    public void openJournalReplaysBookStatusChangesTest() {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        library.findBookByISBN("KU7K3MBQV9LU6").setStatus(BookStatus.RESERVED);
+        library.findBookByISBN("KU7K3MBQV9LU7").borrow("Reader");
+        library.findBookByISBN("KU7K3MBQV9LU8").borrow("Other reader");
+        library.findBookByISBN("KU7K3MBQV9LU8").returnBook();
+        library.closeJournal();
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+
+        assertEquals(BookStatus.RESERVED, restored.findBookByISBN("KU7K3MBQV9LU6").getStatus());
+        assertEquals(BookStatus.BORROWED, restored.findBookByISBN("KU7K3MBQV9LU7").getStatus());
+        assertEquals("Reader", restored.findBookByISBN("KU7K3MBQV9LU7").getCurrentBorrower());
+        assertEquals(BookStatus.AVAILABLE, restored.findBookByISBN("KU7K3MBQV9LU8").getStatus());
+        assertNull(restored.findBookByISBN("KU7K3MBQV9LU8").getCurrentBorrower());
+        assertEquals(library.countBooksByStatus(), restored.countBooksByStatus());
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("Borrow and return records written by earlier versions of the journal should still be restored")
+    public void openJournalReplaysBorrowAndReturnRecordsTest() throws IOException {
+        Files.writeString(Path.of(journalPath), "{\"op\":\"ADD\",\"isbn\":\"KU7K3MBQV9LU6\",\"book\":"
+                + "{\"title\":\"Rage\",\"author\":\"Richard Bachman\",\"year\":1977,\"isbn\":\"KU7K3MBQV9LU6\","
+                + "\"status\":\"AVAILABLE\"}}\n"
+                + "{\"op\":\"BORROW\",\"isbn\":\"KU7K3MBQV9LU6\",\"borrower\":\"Reader\"}\n"
+                + "{\"op\":\"RETURN\",\"isbn\":\"KU7K3MBQV9LU6\"}\n"
+                + "{\"op\":\"BORROW\",\"isbn\":\"KU7K3MBQV9LU6\",\"borrower\":\"Other reader\"}\n");
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+
+        assertEquals(BookStatus.BORROWED, restored.findBookByISBN("KU7K3MBQV9LU6").getStatus());
+        assertEquals("Other reader", restored.findBookByISBN("KU7K3MBQV9LU6").getCurrentBorrower());
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("Changes written to a journal that forces every record to disk should be restored")
+    public void openJournalForceEachRecordTest() {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath, true);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.borrowBook("KU7K3MBQV9LU6", "Reader");
+        library.closeJournal();
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+        assertEquals("Reader", restored.findBookByISBN("KU7K3MBQV9LU6").getCurrentBorrower());
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("compactJournal should write the snapshot and empty the journal")
+    public void compactJournalTest() throws IOException {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.compactJournal();
+
+        assertEquals(0, Files.size(Path.of(journalPath)));
+
+        library.deleteBook("KU7K3MBQV9LU7");
+        library.closeJournal();
+
+        Library snapshot = new Library();
+        snapshot.loadFromJsonFile(snapshotPath);
+        assertEquals(2, snapshot.getAllBooks().size());
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+        assertEquals(1, restored.getAllBooks().size());
+        assertTrue(restored.getAllBooks().containsKey("KU7K3MBQV9LU6"));
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("Replaying the journal over a snapshot that already contains its changes should give the same library")
+    public void openJournalReplayIsIdempotentTest() throws IOException {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.borrowBook("KU7K3MBQV9LU6", "Reader");
+        library.deleteBook("KU7K3MBQV9LU7");
+        library.closeJournal();
+
+        library.saveToJsonFileAtomically(snapshotPath, JsonSaveMode.COMPACT, 0);
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+
+        assertEquals(1, restored.getAllBooks().size());
+        assertEquals("Reader", restored.findBookByISBN("KU7K3MBQV9LU6").getCurrentBorrower());
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("A record torn at the end of the journal should be ignored")
+    public void openJournalTornLastRecordTest() throws IOException {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.closeJournal();
+
+        Files.writeString(Path.of(journalPath), "{\"op\":\"ADD\",\"isbn\":\"KU7K3", StandardOpenOption.APPEND);
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+        assertEquals(1, restored.getAllBooks().size());
+        restored.closeJournal();
+    }
+
+    @Test
+    @DisplayName("A record torn at the end of the journal should be cut off, so later records stay readable")
+    public void openJournalTornRecordThenAppendTest() throws IOException {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.closeJournal();
+
+        Files.writeString(Path.of(journalPath), "{\"op\":\"ADD\",\"isbn\":\"KU7K3", StandardOpenOption.APPEND);
+
+        Library reopened = new Library();
+        reopened.openJournal(snapshotPath, journalPath);
+        reopened.borrowBook("KU7K3MBQV9LU7", "Reader");
+        reopened.closeJournal();
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+        assertEquals(2, restored.getAllBooks().size());
+        assertEquals(BookStatus.BORROWED, restored.findBookByISBN("KU7K3MBQV9LU7").getStatus());
+        assertEquals("Reader", restored.findBookByISBN("KU7K3MBQV9LU7").getCurrentBorrower());
+        restored.closeJournal();
+        assertEquals(3, Files.readAllLines(Path.of(journalPath)).size());
+    }
+
+    @Test
+    @DisplayName("Loading a library while the journal is open should become the new snapshot for later journal records")
+    public void loadWhileJournalOpenTest() throws IOException {
+        Library other = new Library();
+        other.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU1"));
+        String otherJsonPath = String.valueOf(tempDir.resolve("other.json"));
+        String otherBinaryPath = String.valueOf(tempDir.resolve("other.bin"));
+        other.saveToNewJsonFile(otherJsonPath);
+        other.saveToBinaryFile(otherBinaryPath);
+
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.loadFromJsonFile(otherJsonPath);
+        library.borrowBook("KU7K3MBQV9LU1", "Reader");
+        library.closeJournal();
+
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+        assertEquals(library.getAllBooks().keySet(), restored.getAllBooks().keySet());
+        assertEquals("Reader", restored.findBookByISBN("KU7K3MBQV9LU1").getCurrentBorrower());
+
+        restored.loadFromBinaryFile(otherBinaryPath);
+        restored.closeJournal();
+        assertEquals(0, Files.size(Path.of(journalPath)));
+
+        Library reloaded = new Library();
+        reloaded.openJournal(snapshotPath, journalPath);
+        assertEquals(BookStatus.AVAILABLE, reloaded.findBookByISBN("KU7K3MBQV9LU1").getStatus());
+        reloaded.closeJournal();
+    }
+
+    @Test
+    @DisplayName("openJournal should throw LibraryFileException if a record in the middle of the journal is broken")
+    public void openJournalBrokenRecordTest() throws IOException {
+        Files.writeString(Path.of(journalPath), "{broken\n{\"op\":\"DELETE\",\"isbn\":\"KU7K3MBQV9LU6\"}\n");
+
+        Library library = new Library();
+        assertThrows(LibraryFileException.class, () -> library.openJournal(snapshotPath, journalPath));
+    }
+
+    @Test
+    @DisplayName("openJournal should throw IllegalStateException if the journal is already open")
+    public void openJournalTwiceTest() {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        assertThrows(IllegalStateException.class, () -> library.openJournal(snapshotPath, journalPath));
+        library.closeJournal();
+    }
+
+    @Test
+    @DisplayName("compactJournal should throw IllegalStateException if the journal is not open")
+    public void compactJournalNotOpenTest() {
+        Library library = new Library();
+        assertThrows(IllegalStateException.class, library::compactJournal);
+    }
+
+    @Test
+    @DisplayName("Changes restored from the journal should match a full save of the library after the same changes")
+    public void journalMatchesFullSaveTest() throws IOException {
+        Library library = new Library();
+        library.openJournal(snapshotPath, journalPath);
+        library.addBooks(createLibrary(2_000, 100).getAllBooks().values());
+        library.compactJournal();
+
+        int changes = 100;
+        for (int i = 0; i < changes; i++) {
+            library.borrowBook(String.format("KU%011d", i), "Reader " + i);
+        }
+        library.closeJournal();
+        String fullSavePath = String.valueOf(tempDir.resolve("full.json"));
+        library.saveToJsonFileAtomically(fullSavePath, JsonSaveMode.COMPACT, 0);
+
+        assertTrue(Files.size(Path.of(journalPath)) < Files.size(Path.of(snapshotPath)));
+        Library restored = new Library();
+        restored.openJournal(snapshotPath, journalPath);
+        restored.closeJournal();
+        Library fullSave = new Library();
+        fullSave.loadFromJsonFile(fullSavePath);
+        assertEquals(fullSave.getAllBooks().keySet(), restored.getAllBooks().keySet());
+        assertEquals(fullSave.countBooksByStatus(), restored.countBooksByStatus());
+        for (int i = 0; i < changes; i++) {
+            Book book = restored.findBookByISBN(String.format("KU%011d", i));
+            assertEquals(BookStatus.BORROWED, book.getStatus());
+            assertEquals("Reader " + i, book.getCurrentBorrower());
+        }
+    }
+}
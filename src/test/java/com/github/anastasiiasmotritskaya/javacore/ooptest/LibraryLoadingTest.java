@@ -3,8 +3,7 @@ package com.github.anastasiiasmotritskaya.javacore.ooptest;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
-import com.github.anastasiiasmotritskaya.javacore.oop.Book;
-import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import com.github.anastasiiasmotritskaya.javacore.oop.*;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Story;
@@ -21,7 +20,9 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -153,6 +154,73 @@ public class LibraryLoadingTest {
         assertBookMatches(book_3, "Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
     }
 
+    @Test
+    @DisplayName("loadFromJsonFile should report the number of loaded books to the progress callback after each book")
+    public void loadFromJsonFileProgressCallbackTest() throws IOException {
+        Path tempPath = tempDir.resolve("loadFromJsonFileProgressCallback.json");
+        String jsonContent = """
+                {
+                  "KU7K3MBQV9LU8" : {
+                    "title" : "Wuthering Heights",
+                    "author" : "Emily Brontë",
+                    "year" : 1847,
+                    "isbn" : "KU7K3MBQV9LU8"
+                  },
+                  "KU7K3MBQV9LU6" : {
+                    "title" : "Rage",
+                    "author" : "Richard Bachman",
+                    "year" : 1977,
+                    "isbn" : "KU7K3MBQV9LU6"
+                  }
+                }
+                """;
+        Files.writeString(tempPath, jsonContent, StandardCharsets.UTF_8);
+        List<Long> progress = new ArrayList<>();
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(tempPath), progress::add);
+
+        assertEquals(List.of(1L, 2L), progress);
+        assertEquals(2, emptyLibrary.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("loadFromJsonFile should keep the current books if the file can not be loaded")
+    public void loadFromJsonFileKeepsBooksOnErrorTest() throws IOException {
+        Library library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        Path tempPath = tempDir.resolve("loadFromJsonFileKeepsBooksOnError.json");
+        String jsonContent = """
+                {
+                  "KU7K3MBQV9LU8" : {
+                    "title" : "Wuthering Heights",
+                    "author" : "Emily Brontë",
+                    "year" : 1847,
+                    "isbn" : "KU7K3MBQV9LU8"
+                  },
+                  "KU7K3MBQV9LU9" : {
+                    "title" : "The Grapes of Wrath",
+                """;
+        Files.writeString(tempPath, jsonContent, StandardCharsets.UTF_8);
+
+        assertThrows(LibraryFileException.class, () -> library.loadFromJsonFile(String.valueOf(tempPath)));
+
+        assertEquals(1, library.getAllBooks().size());
+        assertTrue(library.getAllBooks().containsKey("KU7K3MBQV9LU6"));
+    }
+
+    @Test
+    @DisplayName("loadFromJsonFile should throw LibraryFileException if the file contains only spaces")
+    public void loadFromJsonFileBlankFileTest_LibraryFileException() throws IOException {
+        Path tempPath = tempDir.resolve("loadFromJsonFileBlankFile.json");
+        Files.writeString(tempPath, "   \n", StandardCharsets.UTF_8);
+
+        LibraryFileException exception = assertThrows(LibraryFileException.class,
+                () -> emptyLibrary.loadFromJsonFile(String.valueOf(tempPath)));
+
+        assertTrue(exception.getMessage().startsWith("Invalid book data: "));
+        assertTrue(exception.getCause() instanceof MismatchedInputException);
+    }
+
     @ParameterizedTest(name = "[{index}] {1}")
     @DisplayName("loadFromJsonFile should throw LibraryFileException when JSON is invalid")
     @MethodSource("jsonParseExceptionDataProvider")
@@ -412,6 +480,100 @@ public class LibraryLoadingTest {
         assertBookMatches(book, "Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
     }
 
+    @Test
+    @DisplayName("loadFromJsonFile should restore FictionBook and TechnicalBook saved by saveToNewJsonFile")
+    public void loadFromJsonFileSubclassesRoundTripTest() {
+        Library library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8", "Novel"));
+        library.addBook(new TechnicalBook("Effective Java", "Joshua Bloch", 2018, "KU7K3MBQV9LU9",
+                "Java", DifficultyLevel.ADVANCED));
+        Path tempPath = tempDir.resolve("loadFromJsonFileSubclassesRoundTrip.json");
+        library.saveToNewJsonFile(String.valueOf(tempPath));
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(tempPath));
+
+        assertEquals(Book.class, emptyLibrary.findBookByISBN("KU7K3MBQV9LU6").getClass());
+        FictionBook fictionBook = assertInstanceOf(FictionBook.class, emptyLibrary.findBookByISBN("KU7K3MBQV9LU8"));
+        assertBookMatches(fictionBook, "Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8");
+        assertEquals("Novel", fictionBook.getGenre());
+        TechnicalBook technicalBook = assertInstanceOf(TechnicalBook.class, emptyLibrary.findBookByISBN("KU7K3MBQV9LU9"));
+        assertEquals("Java", technicalBook.getSubject());
+        assertEquals(DifficultyLevel.ADVANCED, technicalBook.getDifficultyLevel());
+    }
+
+    @Test
+    @DisplayName("loadFromJsonFile should read the type field in any position and load books without it as Book")
+    public void loadFromJsonFileTypeFieldTest() throws IOException {
+        Path tempPath = tempDir.resolve("loadFromJsonFileTypeField.json");
+        String jsonContent = """
+                {
+                  "KU7K3MBQV9LU6" : {
+                    "title" : "Rage",
+                    "author" : "Richard Bachman",
+                    "year" : 1977,
+                    "isbn" : "KU7K3MBQV9LU6"
+                  },
+                  "KU7K3MBQV9LU8" : {
+                    "title" : "Wuthering Heights",
+                    "author" : "Emily Brontë",
+                    "year" : 1847,
+                    "isbn" : "KU7K3MBQV9LU8",
+                    "genre" : "Novel",
+                    "type" : "fiction"
+                  }
+                }
+                """;
+        Files.writeString(tempPath, jsonContent, StandardCharsets.UTF_8);
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(tempPath));
+
+        assertEquals(Book.class, emptyLibrary.findBookByISBN("KU7K3MBQV9LU6").getClass());
+        assertEquals("Novel",
+                assertInstanceOf(FictionBook.class, emptyLibrary.findBookByISBN("KU7K3MBQV9LU8")).getGenre());
+    }
+
+    @Test
+    @DisplayName("loadFromJsonFile should load a book with an unknown type as Book")
+    public void loadFromJsonFileUnknownTypeTest() throws IOException {
+        Path tempPath = tempDir.resolve("loadFromJsonFileUnknownType.json");
+        Files.writeString(tempPath, """
+                {"KU7K3MBQV9LU6": {"type": "magazine", "title": "Rage", "author": "Richard Bachman",
+                                   "year": 1977, "isbn": "KU7K3MBQV9LU6"}}
+                """, StandardCharsets.UTF_8);
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(tempPath));
+
+        Book book = emptyLibrary.findBookByISBN("KU7K3MBQV9LU6");
+        assertEquals(Book.class, book.getClass());
+        assertBookMatches(book, "Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+    }
+
+    @Test
+    @DisplayName("loadFromJsonFile should restore the class of every book in a library with all kinds of books")
+    public void loadFromJsonFilePolymorphicTest() {
+        int size = 3_000;
+        Library mixedLibrary = new Library();
+        for (int i = 0; i < size; i++) {
+            String isbn = String.format("KU%011d", i);
+            mixedLibrary.addBook(switch (i % 3) {
+                case 0 -> new Book("Title " + i, "Author " + i % 1000, 1900 + i % 100, isbn);
+                case 1 -> new FictionBook("Title " + i, "Author " + i % 1000, 1900 + i % 100, isbn, "Novel");
+                default -> new TechnicalBook("Title " + i, "Author " + i % 1000, 1900 + i % 100, isbn,
+                        "Java", DifficultyLevel.INTERMEDIATE);
+            });
+        }
+        Path mixedPath = tempDir.resolve("mixed.json");
+        mixedLibrary.saveToNewJsonFile(String.valueOf(mixedPath));
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(mixedPath));
+
+        assertEquals(size, emptyLibrary.getAllBooks().size());
+        for (Book book : mixedLibrary.getAllBooks().values()) {
+            assertEquals(book.getClass(), emptyLibrary.findBookByISBN(book.getIsbn()).getClass());
+        }
+    }
+
     /**
      * Проверяет что книга соответствует ожидаемым значениям всех полей.
      * Используется в тестах для избежания дублирования кода проверок.
@@ -0,0 +1,132 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.*;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.isbnSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library composable query testing")
+public class LibraryQueryTest {
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new FictionBook("The Long Walk", "Richard Bachman", 1979, "KU7K3MBQV9LU8", "dystopia"));
+        library.addBook(new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU9", "drama"));
+        library.addBook(new TechnicalBook("Physics for beginners", "John Smith", 2001,
+                "KU7K3MBQV9LU0", "physics", DifficultyLevel.BEGINNER));
+        library.addBook(new TechnicalBook("Advanced physics", "John Smith", 2005,
+                "KU7K3MBQV9LU1", "Physics", DifficultyLevel.ADVANCED));
+    }
+
+    @Test
+    @DisplayName("findBooks should return the books matching author, year range and status together")
+    public void findBooksByAuthorYearAndStatusTest() {
+        library.borrowBook("KU7K3MBQV9LU7", "Reader");
+
+        BookQuery query = new BookQuery().author("richard bachman").yearRange(1977, 1990).status(BookStatus.AVAILABLE);
+
+        assertEquals(Set.of("KU7K3MBQV9LU6", "KU7K3MBQV9LU8"), isbnSet(library.findBooks(query)));
+        assertEquals(2, library.countBooks(query));
+    }
+
+    @Test
+    @DisplayName("findBooks should filter by book type, genre, subject and difficulty level")
+    public void findBooksBySubtypeFieldsTest() {
+        assertEquals(Set.of("KU7K3MBQV9LU8", "KU7K3MBQV9LU9"),
+                isbnSet(library.findBooks(new BookQuery().type(FictionBook.class))));
+        assertEquals(Set.of("KU7K3MBQV9LU9"), isbnSet(library.findBooks(new BookQuery().genre(" DRAMA "))));
+        assertEquals(Set.of("KU7K3MBQV9LU0", "KU7K3MBQV9LU1"),
+                isbnSet(library.findBooks(new BookQuery().subject("physics"))));
+        assertEquals(Set.of("KU7K3MBQV9LU1"), isbnSet(library.findBooks(
+                new BookQuery().author("John Smith").difficultyLevel(DifficultyLevel.ADVANCED))));
+        assertEquals(6, library.countBooks(new BookQuery().type(Book.class)));
+        assertEquals(6, library.countBooks(new BookQuery()));
+    }
+
+    @Test
+    @DisplayName("findBooks should intersect author and title conditions")
+    public void findBooksByAuthorAndTitleTest() {
+        assertEquals(Set.of("KU7K3MBQV9LU7"),
+                isbnSet(library.findBooks(new BookQuery().author("Richard Bachman").title("the running man"))));
+        assertTrue(library.findBooks(new BookQuery().author("Emily Brontë").title("Rage")).isEmpty());
+        assertTrue(library.findBooks(new BookQuery().author("Stephen King").yearRange(1900, 2000)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("explainQuery should choose the most selective index")
+    public void explainQueryTest() {
+        assertEquals("full scan, 6 candidates", library.explainQuery(new BookQuery().status(BookStatus.AVAILABLE)));
+        assertEquals("author index, 3 candidates",
+                library.explainQuery(new BookQuery().author("Richard Bachman").yearRange(1457, 2020)));
+        assertEquals("year index, 1 candidates",
+                library.explainQuery(new BookQuery().author("Richard Bachman").yearRange(1980, 1985)));
+        assertEquals("title index, 1 candidates",
+                library.explainQuery(new BookQuery().author("Richard Bachman").title("Rage")));
+        assertEquals("author index, 0 candidates",
+                library.explainQuery(new BookQuery().author("Stephen King").yearRange(1900, 2000)));
+    }
+
+    @Test
+    @DisplayName("findBooks should see books added, deleted and borrowed after the query was created")
+    public void queryReflectsChangesTest() {
+        BookQuery query = new BookQuery().author("Richard Bachman").status(BookStatus.AVAILABLE);
+
+        library.deleteBook("KU7K3MBQV9LU6");
+        library.borrowBook("KU7K3MBQV9LU7", "Reader");
+        library.addBook(new Book("Roadwork", "Richard Bachman", 1981, "KU7K3MBQV9LU2"));
+
+        assertEquals(Set.of("KU7K3MBQV9LU8", "KU7K3MBQV9LU2"), isbnSet(library.findBooks(query)));
+    }
+
+    @Test
+    @DisplayName("BookQuery and findBooks should throw IllegalArgumentException for invalid conditions")
+    public void invalidQueryTest() {
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().author(" "));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().title(null));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().yearRange(2000, 1990));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().yearRange(1000, 1990));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().status(null));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().type(null));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().genre(""));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().subject(null));
+        assertThrows(IllegalArgumentException.class, () -> new BookQuery().difficultyLevel(null));
+        assertThrows(IllegalArgumentException.class, () -> library.findBooks(null));
+    }
+
+    @Test
+    @DisplayName("A combined query with the planner should find the same books as intersecting the results of separate queries")
+    public void queryMatchesIntersectionTest() {
+        Library bigLibrary = createLibrary(10_000, 30);
+        for (int i = 0; i < 10_000; i += 4) {
+            bigLibrary.borrowBook(String.format("KU%011d", i), "Reader");
+        }
+
+        Set<Book> byYear = Set.copyOf(bigLibrary.findBooksByYearRange(1900, 1950));
+        for (int i = 0; i < 30; i++) {
+            Set<String> planned = isbnSet(bigLibrary.findBooks(new BookQuery().author("Author " + i)
+                    .yearRange(1900, 1950).status(BookStatus.AVAILABLE)));
+            Set<String> intersected = isbnSet(bigLibrary.findBookByAuthor("Author " + i).stream()
+                    .filter(byYear::contains)
+                    .filter(book -> book.getStatus() == BookStatus.AVAILABLE)
+                    .toList());
+
+            assertFalse(planned.isEmpty());
+            assertEquals(intersected, planned);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.oop.*;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library books report testing")
+public class LibraryReportTest {
+    @TempDir
+    Path tempDir;
+
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new TechnicalBook("Physics for beginners", "John Smith", 2001,
+                "TB7K3MBQV9LU9", "physics", DifficultyLevel.BEGINNER));
+        library.addBook(new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "FB7K3MBQV9LU9", "drama"));
+        library.addBook(new Book("The Long walk", "Richard Bachman", 1983, "KU7K3MBQV9LU9"));
+    }
+
+    @Test
+    @DisplayName("writeAllBooksBasicInfo should write the same report to a Writer as getAllBooksBasicInfo returns")
+    public void writeAllBooksBasicInfoWriterTest() {
+        StringWriter writer = new StringWriter();
+
+        library.writeAllBooksBasicInfo(writer);
+
+        assertEquals(library.getAllBooksBasicInfo(), writer.toString());
+        assertEquals(Set.of(
+                        "Technical: Physics for beginners, subject: physics, difficulty Level: BEGINNER",
+                        "Fiction: Wuthering Heights, genre: drama",
+                        "Book: The Long walk"),
+                Set.copyOf(writer.toString().lines().toList()));
+    }
+
+    @Test
+    @DisplayName("writeAllBooksBasicInfo should write the report to a channel in UTF-8")
+    public void writeAllBooksBasicInfoChannelTest() throws IOException {
+        Path filePath = tempDir.resolve("report.txt");
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            library.writeAllBooksBasicInfo(channel);
+        }
+
+        assertEquals(library.getAllBooksBasicInfo(), Files.readString(filePath, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("writeAllBooksBasicInfo should throw LibraryFileException if the Writer fails")
+    public void writeAllBooksBasicInfoWriterFailsTest() {
+        Writer failingWriter = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Disk is full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(LibraryFileException.class, () -> library.writeAllBooksBasicInfo(failingWriter));
+    }
+
+    @Test
+    @DisplayName("writeAllBooksBasicInfo should throw IllegalArgumentException if the Writer or channel is null")
+    public void writeAllBooksBasicInfoNullTest() {
+        assertThrows(IllegalArgumentException.class, () -> library.writeAllBooksBasicInfo((Writer) null));
+        assertThrows(IllegalArgumentException.class, () -> library.writeAllBooksBasicInfo((WritableByteChannel) null));
+    }
+
+    @Test
+    @DisplayName("The report streamed to a file should match the report built as one string")
+    public void streamedReportMatchesStringTest() throws IOException {
+        Library bigLibrary = new Library();
+        int size = 3_000;
+        for (int i = 0; i < size; i++) {
+            String isbn = String.format("KU%011d", i);
+            if (i % 3 == 0) {
+                bigLibrary.addBook(new FictionBook("Title " + i, "Author", 2000, isbn, "drama"));
+            } else if (i % 3 == 1) {
+                bigLibrary.addBook(new TechnicalBook("Title " + i, "Author", 2000, isbn, "physics", DifficultyLevel.ADVANCED));
+            } else {
+                bigLibrary.addBook(new Book("Title " + i, "Author", 2000, isbn));
+            }
+        }
+        Path filePath = tempDir.resolve("report.txt");
+
+        String report = bigLibrary.getAllBooksBasicInfo();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            bigLibrary.writeAllBooksBasicInfo(channel);
+        }
+
+        assertEquals(report, Files.readString(filePath));
+        assertEquals(size, report.lines().count());
+    }
+}
@@ -2,6 +2,7 @@ package com.github.anastasiiasmotritskaya.javacore.ooptest;
 
 import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
 import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.JsonSaveMode;
 import com.github.anastasiiasmotritskaya.javacore.oop.Library;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
@@ -17,11 +18,19 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.assertBookMatches;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @Epic("Java Core")
 @Feature("OOP")
@@ -259,4 +268,123 @@ public class LibrarySavingTest {
         Book book = emptyLibrary.getAllBooks().get("KU7K3MBQV9LU6");
         assertBookMatches(book, "Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
     }
+
+    @Test
+    @DisplayName("saveToNewJsonFile in COMPACT mode should write json without spaces and line breaks")
+    public void saveToNewJsonFileCompactModeTest() throws IOException {
+        Path tempPath = tempDir.resolve("saveToNewJsonFileCompactMode.json");
+        threeBooksLibrary.saveToNewJsonFile(String.valueOf(tempPath), JsonSaveMode.COMPACT);
+
+        String content = Files.readString(tempPath);
+        assertFalse(content.contains("\n"));
+        assertFalse(content.contains(" : "));
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(tempPath));
+        assertEquals(3, emptyLibrary.getAllBooks().size());
+        assertBookMatches(emptyLibrary.getAllBooks().get("KU7K3MBQV9LU8"),
+                "Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8");
+    }
+
+    @Test
+    @DisplayName("saveToExistingJsonFile in COMPACT mode should write an empty library as a {}")
+    public void saveToExistingJsonFileCompactModeEmptyLibraryTest() throws IOException {
+        Path tempPath = tempDir.resolve("saveToExistingJsonFileCompactModeEmptyLibrary.json");
+        Files.createFile(tempPath);
+        emptyLibrary.saveToExistingJsonFile(String.valueOf(tempPath), JsonSaveMode.COMPACT);
+        assertEquals("{}", Files.readString(tempPath));
+    }
+
+    @Test
+    @DisplayName("The json file saved in COMPACT mode should be smaller than in PRETTY mode and load the same books")
+    public void saveToNewJsonFilePrettyVsCompactTest() throws IOException {
+        Library library = createLibrary(5_000, 1000);
+
+        Path prettyPath = tempDir.resolve("pretty.json");
+        library.saveToNewJsonFile(String.valueOf(prettyPath), JsonSaveMode.PRETTY);
+        Path compactPath = tempDir.resolve("compact.json");
+        library.saveToNewJsonFile(String.valueOf(compactPath), JsonSaveMode.COMPACT);
+
+        assertTrue(Files.size(compactPath) < Files.size(prettyPath));
+        Library prettyLoaded = new Library();
+        prettyLoaded.loadFromJsonFile(String.valueOf(prettyPath));
+        Library compactLoaded = new Library();
+        compactLoaded.loadFromJsonFile(String.valueOf(compactPath));
+        assertEquals(library.getAllBooks().keySet(), prettyLoaded.getAllBooks().keySet());
+        assertEquals(prettyLoaded.getAllBooks().keySet(), compactLoaded.getAllBooks().keySet());
+    }
+
+    @Test
+    @DisplayName("saveToJsonFileAtomically should create the file and write the library")
+    public void saveToJsonFileAtomicallyCreatesFileTest() {
+        Path tempPath = tempDir.resolve("saveToJsonFileAtomicallyCreatesFile.json");
+        threeBooksLibrary.saveToJsonFileAtomically(String.valueOf(tempPath));
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(tempPath));
+        assertEquals(3, emptyLibrary.getAllBooks().size());
+        assertBookMatches(emptyLibrary.getAllBooks().get("KU7K3MBQV9LU7"),
+                "The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7");
+    }
+
+    @Test
+    @DisplayName("saveToJsonFileAtomically should replace the existing file and leave no temporary files")
+    public void saveToJsonFileAtomicallyReplacesFileTest() throws IOException {
+        Path tempPath = tempDir.resolve("saveToJsonFileAtomicallyReplacesFile.json");
+        threeBooksLibrary.saveToJsonFileAtomically(String.valueOf(tempPath));
+        oneBookLibrary.saveToJsonFileAtomically(String.valueOf(tempPath), JsonSaveMode.COMPACT, 0);
+
+        emptyLibrary.loadFromJsonFile(String.valueOf(tempPath));
+        assertEquals(1, emptyLibrary.getAllBooks().size());
+        assertTrue(emptyLibrary.getAllBooks().containsKey("KU7K3MBQV9LU6"));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(tempPath), files.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("saveToJsonFileAtomically should create the file with default permissions and keep the permissions of a replaced file")
+    public void saveToJsonFileAtomicallyPermissionsTest() throws IOException {
+        assumeTrue(Files.getFileStore(tempDir).supportsFileAttributeView(PosixFileAttributeView.class));
+        Path defaultPath = Files.createFile(tempDir.resolve("default.json"));
+        Path newPath = tempDir.resolve("saveToJsonFileAtomicallyNewFile.json");
+        Path existingPath = tempDir.resolve("saveToJsonFileAtomicallyExistingFile.json");
+        Files.createFile(existingPath);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(existingPath, permissions);
+
+        threeBooksLibrary.saveToJsonFileAtomically(String.valueOf(newPath));
+        threeBooksLibrary.saveToJsonFileAtomically(String.valueOf(existingPath));
+
+        assertEquals(Files.getPosixFilePermissions(defaultPath), Files.getPosixFilePermissions(newPath));
+        assertEquals(permissions, Files.getPosixFilePermissions(existingPath));
+    }
+
+    @Test
+    @DisplayName("saveToJsonFileAtomically should throw IllegalArgumentException if max bytes per second is negative")
+    public void saveToJsonFileAtomicallyNegativeRateTest() {
+        Path tempPath = tempDir.resolve("saveToJsonFileAtomicallyNegativeRate.json");
+        assertThrows(IllegalArgumentException.class,
+                () -> oneBookLibrary.saveToJsonFileAtomically(String.valueOf(tempPath), JsonSaveMode.PRETTY, -1));
+        assertFalse(Files.exists(tempPath));
+    }
+
+    @Test
+    @DisplayName("The throttled atomic save should take at least the time allowed by the rate limit and write the same file")
+    public void saveToJsonFileAtomicallyThrottledTest() throws IOException {
+        Library library = createLibrary(2_000, 100);
+
+        Path fastPath = tempDir.resolve("fast.json");
+        library.saveToJsonFileAtomically(String.valueOf(fastPath), JsonSaveMode.COMPACT, 0);
+        long size = Files.size(fastPath);
+        long maxBytesPerSecond = size * 4;
+
+        Path throttledPath = tempDir.resolve("throttled.json");
+        long start = System.currentTimeMillis();
+        library.saveToJsonFileAtomically(String.valueOf(throttledPath), JsonSaveMode.COMPACT, maxBytesPerSecond);
+        long throttledDuration = System.currentTimeMillis() - start;
+
+        assertEquals(size, Files.size(throttledPath));
+        assertEquals(Files.readString(fastPath), Files.readString(throttledPath));
+        assertTrue(throttledDuration >= 200);
+    }
 }
@@ -0,0 +1,141 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.isbnSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library search testing")
+public class LibrarySearchTest {
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        library.addBook(new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9"));
+        library.addBook(new Book("Man's Search for Meaning", "Viktor Frankl", 1946, "KU7K3MBQV9LU0"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "wuth, KU7K3MBQV9LU8, 'Beginning of a title word'",
+            "HEIGHTS, KU7K3MBQV9LU8, 'Whole title word in upper case'",
+            "runn, KU7K3MBQV9LU7, 'Beginning of a word in the middle of a title'",
+            "fran, KU7K3MBQV9LU0, 'Beginning of an author word'",
+            "'  eyr  ', KU7K3MBQV9LU9, 'Spaces around the query'",
+    })
+    @DisplayName("searchByPrefix should find a book by the beginning of a word in the title or author")
+    public void searchByPrefixTest(String query, String expectedIsbn, String description) {
+        List<Book> found = library.searchByPrefix(query, 10);
+        assertEquals(1, found.size(), description);
+        assertEquals(expectedIsbn, found.get(0).getIsbn(), description);
+    }
+
+    @Test
+    @DisplayName("searchByPrefix should find every book with a matching word and respect the limit")
+    public void searchByPrefixLimitTest() {
+        assertEquals(Set.of("KU7K3MBQV9LU7", "KU7K3MBQV9LU0"), isbnSet(library.searchByPrefix("m", 10)));
+        assertEquals(1, library.searchByPrefix("m", 1).size());
+        assertEquals(2, library.searchByPrefix("bront", 10).size());
+    }
+
+    @Test
+    @DisplayName("searchByPrefix should treat all words except the last one as whole words")
+    public void searchByPrefixSeveralWordsTest() {
+        assertEquals(Set.of("KU7K3MBQV9LU8"), isbnSet(library.searchByPrefix("Emily Bro", 10)));
+        assertEquals(Set.of("KU7K3MBQV9LU7"), isbnSet(library.searchByPrefix("running m", 10)));
+        assertTrue(library.searchByPrefix("runn man", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("searchAllTerms should find books that contain every word in the title or author")
+    public void searchAllTermsTest() {
+        assertEquals(Set.of("KU7K3MBQV9LU6", "KU7K3MBQV9LU7"), isbnSet(library.searchAllTerms("bachman richard")));
+        assertEquals(Set.of("KU7K3MBQV9LU7"), isbnSet(library.searchAllTerms("Man, Bachman")));
+        assertEquals(Set.of("KU7K3MBQV9LU8"), isbnSet(library.searchAllTerms("heights brontë")));
+        assertTrue(library.searchAllTerms("heights frankl").isEmpty());
+        assertTrue(library.searchAllTerms("!!!").isEmpty());
+    }
+
+    @Test
+    @DisplayName("searchRanked should put books with more and better matches first")
+    public void searchRankedTest() {
+        List<Book> found = library.searchRanked("man bachman", 10);
+
+        assertEquals(List.of("KU7K3MBQV9LU7", "KU7K3MBQV9LU0", "KU7K3MBQV9LU6"),
+                found.stream().map(Book::getIsbn).toList());
+        assertEquals(List.of("KU7K3MBQV9LU7"),
+                library.searchRanked("man bachman", 1).stream().map(Book::getIsbn).toList());
+    }
+
+    @Test
+    @DisplayName("Search indexes should be updated when books are added, deleted and removed by author")
+    public void searchIndexUpdatesTest() {
+        library.addBook(new Book("Heights of Man", "Joseph Bloch", 2001, "KU7K3MBQV9LUA"));
+        assertEquals(2, library.searchByPrefix("height", 10).size());
+
+        library.deleteBook("KU7K3MBQV9LU8");
+        assertEquals(Set.of("KU7K3MBQV9LUA"), isbnSet(library.searchByPrefix("height", 10)));
+
+        library.removeBooksByAuthor("Richard Bachman");
+        assertTrue(library.searchAllTerms("bachman").isEmpty());
+        assertEquals(Set.of("KU7K3MBQV9LUA", "KU7K3MBQV9LU0"), isbnSet(library.searchByPrefix("man", 10)));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   "})
+    @DisplayName("Search methods should throw IllegalArgumentException if the query is null or empty")
+    public void searchNullOrEmptyQueryTest(String query) {
+        assertThrows(IllegalArgumentException.class, () -> library.searchByPrefix(query, 10));
+        assertThrows(IllegalArgumentException.class, () -> library.searchAllTerms(query));
+        assertThrows(IllegalArgumentException.class, () -> library.searchRanked(query, 10));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    @DisplayName("Search methods should throw IllegalArgumentException if the limit is not positive")
+    public void searchInvalidLimitTest(int limit) {
+        assertThrows(IllegalArgumentException.class, () -> library.searchByPrefix("rage", limit));
+        assertThrows(IllegalArgumentException.class, () -> library.searchRanked("rage", limit));
+    }
+
+    @Test
+    @DisplayName("The prefix search with the index should find the same books as scanning all books with contains")
+    public void searchByPrefixMatchesScanTest() {
+        Library bigLibrary = new Library();
+        int size = 20_000;
+        for (int i = 0; i < size; i++) {
+            bigLibrary.addBook(new Book("Title " + i + " word" + i % 500, "Author " + i % 1000,
+                    1900 + i % 100, String.format("KU%011d", i)));
+        }
+
+        List<Book> indexed = bigLibrary.searchByPrefix("word432", 100);
+        List<Book> scanned = bigLibrary.getAllBooks().values().stream()
+                .filter(book -> book.getTitle().toLowerCase().contains("word432"))
+                .collect(Collectors.toList());
+
+        assertEquals(size / 500, indexed.size());
+        assertEquals(isbnSet(scanned), isbnSet(indexed));
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.oop.*;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library sharded loading testing")
+public class LibraryShardedLoadingTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("loadFromShardedJsonFiles should load all books saved by saveToShardedJsonFiles")
+    public void shardedRoundTripTest() throws IOException {
+        Library library = createLibrary(1000, 100);
+        library.addBook(new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8", "Novel"));
+        Path directory = tempDir.resolve("shards");
+
+        library.saveToShardedJsonFiles(String.valueOf(directory), 8, JsonSaveMode.COMPACT);
+
+        assertEquals(8, countFiles(directory));
+        Library loaded = new Library();
+        loaded.loadFromShardedJsonFiles(String.valueOf(directory));
+
+        assertEquals(1001, loaded.getAllBooks().size());
+        assertEquals(library.getAllBooks().keySet(), loaded.getAllBooks().keySet());
+        assertEquals(10, loaded.findBookByAuthor("Author 7").size());
+        assertEquals("Novel", assertInstanceOf(FictionBook.class, loaded.findBookByISBN("KU7K3MBQV9LU8")).getGenre());
+    }
+
+    @Test
+    @DisplayName("saveToShardedJsonFiles should replace the shards of the previous save")
+    public void saveToShardedJsonFilesReplacesOldShardsTest() throws IOException {
+        Path directory = tempDir.resolve("shards");
+        createLibrary(100, 100).saveToShardedJsonFiles(String.valueOf(directory), 16, JsonSaveMode.PRETTY);
+        createLibrary(10, 100).saveToShardedJsonFiles(String.valueOf(directory), 4, JsonSaveMode.PRETTY);
+
+        assertEquals(4, countFiles(directory));
+        Library loaded = new Library();
+        loaded.loadFromShardedJsonFiles(String.valueOf(directory));
+        assertEquals(10, loaded.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("saveToShardedJsonFiles should keep the shards of the previous save if writing a new shard fails")
+    public void saveToShardedJsonFilesFailureKeepsOldShardsTest() throws IOException {
+        Path directory = tempDir.resolve("shards");
+        createLibrary(100, 100).saveToShardedJsonFiles(String.valueOf(directory), 4, JsonSaveMode.COMPACT);
+
+        AtomicBoolean failing = new AtomicBoolean();
+        Library library = createLibrary(10, 100);
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6") {
+            @Override
+            public String getTitle() {
+                if (failing.get()) {
+                    throw new IllegalStateException("No space left on device.");
+                }
+                return super.getTitle();
+            }
+        });
+        failing.set(true);
+
+        assertThrows(LibraryFileException.class,
+                () -> library.saveToShardedJsonFiles(String.valueOf(directory), 2, JsonSaveMode.COMPACT));
+
+        assertEquals(4, countFiles(directory));
+        Library loaded = new Library();
+        loaded.loadFromShardedJsonFiles(String.valueOf(directory));
+        assertEquals(100, loaded.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("saveToShardedJsonFiles should write empty shards for an empty library")
+    public void shardedEmptyLibraryTest() {
+        Path directory = tempDir.resolve("shards");
+        new Library().saveToShardedJsonFiles(String.valueOf(directory), 3, JsonSaveMode.COMPACT);
+
+        Library loaded = createLibrary(5, 100);
+        loaded.loadFromShardedJsonFiles(String.valueOf(directory));
+        assertTrue(loaded.getAllBooks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("loadFromShardedJsonFiles should throw LibraryFileException if a shard is missing")
+    public void loadFromShardedJsonFilesMissingShardTest() throws IOException {
+        Path directory = tempDir.resolve("shards");
+        createLibrary(100, 100).saveToShardedJsonFiles(String.valueOf(directory), 4, JsonSaveMode.COMPACT);
+        Files.delete(directory.resolve("shard-0002-of-0004.json"));
+
+        Library library = new Library();
+        assertThrows(LibraryFileException.class, () -> library.loadFromShardedJsonFiles(String.valueOf(directory)));
+    }
+
+    @Test
+    @DisplayName("loadFromShardedJsonFiles should throw LibraryFileException if the directory doesn't exist or has no shards")
+    public void loadFromShardedJsonFilesNoShardsTest() throws IOException {
+        Library library = new Library();
+        assertThrows(LibraryFileException.class,
+                () -> library.loadFromShardedJsonFiles(String.valueOf(tempDir.resolve("missing"))));
+
+        Files.createDirectories(tempDir.resolve("empty"));
+        assertThrows(LibraryFileException.class,
+                () -> library.loadFromShardedJsonFiles(String.valueOf(tempDir.resolve("empty"))));
+    }
+
+    @Test
+    @DisplayName("loadFromShardedJsonFiles should classify invalid JSON syntax like loadFromJsonFile and keep the current books")
+    public void loadFromShardedJsonFilesInvalidJsonTest() throws IOException {
+        Path directory = tempDir.resolve("shards");
+        createLibrary(100, 100).saveToShardedJsonFiles(String.valueOf(directory), 4, JsonSaveMode.COMPACT);
+        Path brokenShard = directory.resolve("shard-0001-of-0004.json");
+        Files.writeString(brokenShard, "{\"KU7K3MBQV9LU6\": {\"title\": ");
+
+        Library library = createLibrary(3, 100);
+        LibraryFileException exception = assertThrows(LibraryFileException.class,
+                () -> library.loadFromShardedJsonFiles(String.valueOf(directory)));
+
+        assertEquals("Invalid JSON syntax: " + brokenShard, exception.getMessage());
+        assertInstanceOf(JsonParseException.class, exception.getCause());
+        assertEquals(3, library.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("loadFromShardedJsonFiles should classify invalid book data like loadFromJsonFile")
+    public void loadFromShardedJsonFilesInvalidBookDataTest() throws IOException {
+        Path directory = tempDir.resolve("shards");
+        createLibrary(100, 100).saveToShardedJsonFiles(String.valueOf(directory), 4, JsonSaveMode.COMPACT);
+        Path brokenShard = directory.resolve("shard-0003-of-0004.json");
+        Files.writeString(brokenShard, "{\"KU7K3MBQV9LU6\": {\"title\": \"Rage\", \"pages\": 200}}");
+
+        Library library = new Library();
+        LibraryFileException exception = assertThrows(LibraryFileException.class,
+                () -> library.loadFromShardedJsonFiles(String.valueOf(directory)));
+
+        assertEquals("Invalid book data: " + brokenShard, exception.getMessage());
+        assertInstanceOf(MismatchedInputException.class, exception.getCause());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 10_000})
+    @DisplayName("saveToShardedJsonFiles should throw IllegalArgumentException if the shard count is out of range")
+    public void saveToShardedJsonFilesInvalidShardCountTest(int shardCount) {
+        Library library = createLibrary(1, 100);
+        assertThrows(IllegalArgumentException.class,
+                () -> library.saveToShardedJsonFiles(String.valueOf(tempDir), shardCount, JsonSaveMode.COMPACT));
+    }
+
+    @Test
+    @DisplayName("Loading from shards in parallel should give the same library as loading from one json file")
+    public void singleFileVsShardsTest() {
+        int size = 10_000;
+        int shards = Math.max(2, Runtime.getRuntime().availableProcessors());
+        Library library = createLibrary(size, 100);
+        Path filePath = tempDir.resolve("library.json");
+        Path directory = tempDir.resolve("shards");
+        library.saveToNewJsonFile(String.valueOf(filePath), JsonSaveMode.COMPACT);
+        library.saveToShardedJsonFiles(String.valueOf(directory), shards, JsonSaveMode.COMPACT);
+
+        Library fromFile = new Library();
+        fromFile.loadFromJsonFile(String.valueOf(filePath));
+        Library fromShards = new Library();
+        fromShards.loadFromShardedJsonFiles(String.valueOf(directory));
+
+        assertEquals(size, fromShards.getAllBooks().size());
+        assertEquals(fromFile.getAllBooks().keySet(), fromShards.getAllBooks().keySet());
+        assertEquals(fromFile.getAllUniqueAuthors(), fromShards.getAllUniqueAuthors());
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.JsonSaveMode;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library snapshots and read-only view testing")
+public class LibrarySnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+    }
+
+    @Test
+    @DisplayName("getAllBooks should return the same snapshot until the library changes")
+    public void getAllBooksReusesSnapshotTest() {
+        Map<String, Book> first = library.getAllBooks();
+
+        assertSame(first, library.getAllBooks());
+        library.findBookByISBN("KU7K3MBQV9LU6").borrow("Reader");
+        assertSame(first, library.getAllBooks());
+
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        Map<String, Book> second = library.getAllBooks();
+
+        assertNotSame(first, second);
+        assertEquals(Set.of("KU7K3MBQV9LU6", "KU7K3MBQV9LU7"), first.keySet());
+        assertEquals(3, second.size());
+        assertThrows(UnsupportedOperationException.class, () -> second.remove("KU7K3MBQV9LU6"));
+    }
+
+    @Test
+    @DisplayName("getGeneration should grow when books are added, deleted and loaded")
+    public void getGenerationTest() {
+        long generation = library.getGeneration();
+        library.getAllBooks();
+        library.findBookByISBN("KU7K3MBQV9LU6");
+        assertEquals(generation, library.getGeneration());
+
+        library.deleteBook("KU7K3MBQV9LU6");
+        assertTrue(library.getGeneration() > generation);
+
+        generation = library.getGeneration();
+        Path filePath = tempDir.resolve("library.json");
+        library.saveToNewJsonFile(String.valueOf(filePath), JsonSaveMode.COMPACT);
+        library.loadFromJsonFile(String.valueOf(filePath));
+        assertTrue(library.getGeneration() > generation);
+    }
+
+    @Test
+    @DisplayName("getBooksView should show the current books and reject changes")
+    public void getBooksViewTest() {
+        Map<String, Book> view = library.getBooksView();
+
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        assertEquals(3, view.size());
+        assertTrue(view.containsKey("KU7K3MBQV9LU8"));
+        assertEquals("Rage", view.get("KU7K3MBQV9LU6").getTitle());
+
+        Path filePath = tempDir.resolve("library.json");
+        new Library().saveToNewJsonFile(String.valueOf(filePath), JsonSaveMode.COMPACT);
+        library.loadFromJsonFile(String.valueOf(filePath));
+        assertTrue(view.isEmpty());
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> view.put("KU7K3MBQV9LU9", new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9")));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+        assertThrows(UnsupportedOperationException.class, () -> view.values().clear());
+    }
+
+    @Test
+    @DisplayName("The cached snapshot should be reused between changes and always match a copy of the current books")
+    public void snapshotMatchesCopyTest() {
+        int size = 10_000;
+        Library bigLibrary = createLibrary(size, 1000);
+
+        Map<String, Book> snapshot = bigLibrary.getAllBooks();
+        assertSame(snapshot, bigLibrary.getAllBooks());
+        assertEquals(Map.copyOf(bigLibrary.getBooksView()), snapshot);
+
+        bigLibrary.removeBooksByAuthor("Author 7");
+        Map<String, Book> changed = bigLibrary.getAllBooks();
+        assertNotSame(snapshot, changed);
+        assertEquals(size, snapshot.size());
+        assertEquals(size - size / 1000, changed.size());
+        assertEquals(Map.copyOf(bigLibrary.getBooksView()), changed);
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import com.github.anastasiiasmotritskaya.javacore.oop.SortOrder;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.isbns;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library sorted views and pagination testing")
+public class LibrarySortedViewsTest {
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        library.addBook(new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9"));
+        library.addBook(new Book("Man's Search for Meaning", "Viktor Frankl", 1946, "KU7K3MBQV9LU0"));
+    }
+
+    @Test
+    @DisplayName("getBooksSorted should return pages of books in a stable order")
+    public void getBooksSortedPagesTest() {
+        assertEquals(List.of("KU7K3MBQV9LU8", "KU7K3MBQV9LU9"), isbns(library.getBooksSorted(SortOrder.YEAR, 0, 2)));
+        assertEquals(List.of("KU7K3MBQV9LU0", "KU7K3MBQV9LU6"), isbns(library.getBooksSorted(SortOrder.YEAR, 2, 2)));
+        assertEquals(List.of("KU7K3MBQV9LU7"), isbns(library.getBooksSorted(SortOrder.YEAR, 4, 2)));
+        assertTrue(library.getBooksSorted(SortOrder.YEAR, 5, 2).isEmpty());
+        assertEquals(5, library.getBooksSorted(SortOrder.TITLE, 0, Integer.MAX_VALUE).size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SortOrder.class)
+    @DisplayName("getBooksSortedAfter should walk through all books page by page without gaps and repeats")
+    public void getBooksSortedAfterWalksAllBooksTest(SortOrder order) {
+        List<Book> walked = new ArrayList<>();
+        List<Book> page = library.getBooksSortedAfter(order, null, 2);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            page = library.getBooksSortedAfter(order, page.get(page.size() - 1), 2);
+        }
+
+        assertEquals(library.getBooksSorted(order, 0, 100), walked);
+    }
+
+    @Test
+    @DisplayName("getBooksSortedAfter should continue after a cursor book that has been deleted")
+    public void getBooksSortedAfterDeletedCursorTest() {
+        Book cursor = library.findBookByISBN("KU7K3MBQV9LU0");
+        library.deleteBook("KU7K3MBQV9LU0");
+
+        assertEquals(List.of("KU7K3MBQV9LU6", "KU7K3MBQV9LU7"),
+                isbns(library.getBooksSortedAfter(SortOrder.YEAR, cursor, 10)));
+    }
+
+    @Test
+    @DisplayName("Sorted lists should be updated when books are added, deleted and removed by author")
+    public void sortedViewsUpdateTest() {
+        assertEquals("KU7K3MBQV9LU9", library.getBooksSortedByTitle().get(0).getIsbn());
+
+        library.addBook(new Book("Emma", "Jane Austen", 1815, "KU7K3MBQV9LUA"));
+        assertEquals("KU7K3MBQV9LUA", library.getBooksSortedByTitle().get(0).getIsbn());
+        assertEquals("KU7K3MBQV9LUA", library.getBooksSortedByYear().get(0).getIsbn());
+
+        library.deleteBook("KU7K3MBQV9LUA");
+        library.removeBooksByAuthor("Richard Bachman");
+        assertEquals(List.of("KU7K3MBQV9LU8", "KU7K3MBQV9LU9", "KU7K3MBQV9LU0"), isbns(library.getBooksSortedByYear()));
+        assertEquals(List.of("KU7K3MBQV9LU9", "KU7K3MBQV9LU0", "KU7K3MBQV9LU8"), isbns(library.getBooksSortedByTitle()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SortOrder.class)
+    @DisplayName("Sorted lists should match a full sort after random adds, deletes and re-adds of the same book")
+    public void sortedViewsRandomChangesTest(SortOrder order) {
+        Library changed = new Library();
+        List<Book> created = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            created.add(new Book("Title " + i % 37, "Author " + i % 11, 1900 + i % 50, String.format("KU%011d", i)));
+        }
+        Random random = new Random(7);
+
+        for (int step = 0; step < 3000; step++) {
+            Book book = created.get(random.nextInt(created.size()));
+            if (changed.getAllBooks().containsKey(book.getIsbn())) {
+                changed.deleteBook(book.getIsbn());
+            } else {
+                changed.addBook(book);
+            }
+            if (step % 100 == 0) {
+                changed.getBooksSorted(order, 0, 1);
+            }
+        }
+
+        List<Book> expected = new ArrayList<>(changed.getAllBooks().values());
+        expected.sort(order.comparator());
+        assertEquals(isbns(expected), isbns(changed.getBooksSorted(order, 0, expected.size() + 1)));
+    }
+
+    @Test
+    @DisplayName("Changing the returned list should not change the sorted order of the library")
+    public void sortedListIsCopyTest() {
+        List<Book> sorted = library.getBooksSortedByAuthor();
+        sorted.clear();
+
+        assertEquals(5, library.getBooksSortedByAuthor().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    @DisplayName("Pagination methods should throw IllegalArgumentException if the limit is not positive")
+    public void invalidLimitTest(int limit) {
+        assertThrows(IllegalArgumentException.class, () -> library.getBooksSorted(SortOrder.YEAR, 0, limit));
+        assertThrows(IllegalArgumentException.class, () -> library.getBooksSortedAfter(SortOrder.YEAR, null, limit));
+    }
+
+    @Test
+    @DisplayName("Pagination methods should throw IllegalArgumentException if the order is null or the offset is negative")
+    public void invalidOrderOrOffsetTest() {
+        assertThrows(IllegalArgumentException.class, () -> library.getBooksSorted(null, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> library.getBooksSortedAfter(null, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> library.getBooksSorted(SortOrder.YEAR, -1, 1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SortOrder.class)
+    @DisplayName("Every page of the sorted view should match the same page of all books sorted on request")
+    public void sortedPagesMatchFullSortTest(SortOrder order) {
+        int size = 5_000;
+        int pageSize = 20;
+        Library bigLibrary = createLibrary(size, 1000);
+
+        List<Book> sorted = new ArrayList<>(bigLibrary.getAllBooks().values());
+        sorted.sort(order.comparator());
+
+        for (int offset = 0; offset < size; offset += pageSize) {
+            assertEquals(isbns(sorted.subList(offset, offset + pageSize)),
+                    isbns(bigLibrary.getBooksSorted(order, offset, pageSize)));
+        }
+    }
+}
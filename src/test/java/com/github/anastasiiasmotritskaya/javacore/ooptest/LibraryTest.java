@@ -36,6 +36,9 @@ public class LibraryTest {
     private Library library;
     private Map<String, Book> books;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         Book book_1 = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
@@ -169,6 +172,67 @@ public class LibraryTest {
         assertTrue(actual.containsAll(expected) && expected.containsAll(actual));
     }
 
+    @Test
+    @DisplayName("findBookByAuthor and findBookByTitle should ignore the case of the request")
+    public void findBookByAuthorAndTitleIgnoreCaseTest() {
+        Book expected = new Book("The Grapes of Wrath", "John Steinbeck", 1939, "KU7K3MBQV9LU9");
+
+        assertEquals(List.of(expected), library.findBookByAuthor("JOHN STEINBECK"));
+        assertEquals(List.of(expected), library.findBookByTitle("the grapes of wrath"));
+    }
+
+    @Test
+    @DisplayName("findBookByAuthor and findBookByTitle should find a book added after the library was created")
+    public void findBookByAuthorAndTitleAfterAddBookTest() {
+        Book newBook = new Book("The Long Walk", "Richard Bachman", 1979, "KU7K3MBQV9LU0");
+        library.addBook(newBook);
+
+        assertTrue(library.findBookByAuthor("Richard Bachman").contains(newBook));
+        assertEquals(3, library.findBookByAuthor("Richard Bachman").size());
+        assertEquals(List.of(newBook), library.findBookByTitle("The Long Walk"));
+    }
+
+    @Test
+    @DisplayName("findBookByAuthor and findBookByTitle should not find a deleted book")
+    public void findBookByAuthorAndTitleAfterDeleteBookTest() {
+        library.deleteBook("KU7K3MBQV9LU9");
+
+        assertEquals(new ArrayList<>(), library.findBookByAuthor("John Steinbeck"));
+        assertEquals(new ArrayList<>(), library.findBookByTitle("The Grapes of Wrath"));
+    }
+
+    @Test
+    @DisplayName("findBookByAuthor and findBookByTitle should not find books removed by removeBooksByAuthor")
+    public void findBookByAuthorAndTitleAfterRemoveBooksByAuthorTest() {
+        assertEquals(2, library.removeBooksByAuthor("richard bachman"));
+
+        assertEquals(new ArrayList<>(), library.findBookByAuthor("Richard Bachman"));
+        assertEquals(new ArrayList<>(), library.findBookByTitle("Rage"));
+        assertEquals(new ArrayList<>(), library.findBookByTitle("The Running Man"));
+    }
+
+    @Test
+    @DisplayName("findBookByAuthor and findBookByTitle should search in the books loaded from json file")
+    public void findBookByAuthorAndTitleAfterLoadFromJsonFileTest() throws IOException {
+        Path tempPath = tempDir.resolve("findBookAfterLoad.json");
+        Files.writeString(tempPath, """
+                {
+                  "KU7K3MBQV9LU0" : {
+                    "title" : "The Long Walk",
+                    "author" : "Richard Bachman",
+                    "year" : 1979,
+                    "isbn" : "KU7K3MBQV9LU0"
+                  }
+                }
+                """, StandardCharsets.UTF_8);
+
+        library.loadFromJsonFile(String.valueOf(tempPath));
+
+        assertEquals(1, library.findBookByAuthor("Richard Bachman").size());
+        assertEquals("KU7K3MBQV9LU0", library.findBookByTitle("The Long Walk").getFirst().getIsbn());
+        assertEquals(new ArrayList<>(), library.findBookByAuthor("John Steinbeck"));
+    }
+
     @Test
     @DisplayName("getAllBooks shoul return all books from the library")
     public void getAllBooksTest() {
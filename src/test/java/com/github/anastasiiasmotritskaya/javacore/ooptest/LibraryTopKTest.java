@@ -0,0 +1,120 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+import com.github.anastasiiasmotritskaya.javacore.oop.SortOrder;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.isbns;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Library top-K and streaming queries testing")
+public class LibraryTopKTest {
+    private Library library;
+
+    @BeforeEach
+    void setUp() {
+        library = new Library();
+        library.addBook(new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6"));
+        library.addBook(new Book("The Running Man", "Richard Bachman", 1982, "KU7K3MBQV9LU7"));
+        library.addBook(new Book("Thinner", "Richard Bachman", 1984, "KU7K3MBQV9LUB"));
+        library.addBook(new Book("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8"));
+        library.addBook(new Book("Jane Eyre", "Charlotte Brontë", 1847, "KU7K3MBQV9LU9"));
+        library.addBook(new Book("Man's Search for Meaning", "Viktor Frankl", 1946, "KU7K3MBQV9LU0"));
+    }
+
+    @Test
+    @DisplayName("streamBooksByYearRange should return the same books as findBooksByYearRange in year order")
+    public void streamBooksByYearRangeTest() {
+        List<Book> streamed = library.streamBooksByYearRange(1900, 2000).toList();
+
+        assertEquals(library.findBooksByYearRange(1900, 2000), streamed);
+        assertEquals(List.of(1946, 1977, 1982, 1984), streamed.stream().map(Book::getYear).toList());
+        assertEquals(2, library.streamBooksByYearRange(1800, 2000).limit(2).count());
+    }
+
+    @Test
+    @DisplayName("streamBooksByAuthor should return the same books as findBookByAuthor")
+    public void streamBooksByAuthorTest() {
+        assertEquals(library.findBookByAuthor("Richard Bachman").stream().collect(Collectors.toSet()),
+                library.streamBooksByAuthor("Richard Bachman").collect(Collectors.toSet()));
+        assertEquals(0, library.streamBooksByAuthor("Stephen King").count());
+    }
+
+    @Test
+    @DisplayName("findBooksByYearRange with a limit should return the first books in the comparator order")
+    public void findBooksByYearRangeTopTest() {
+        List<Book> newest = library.findBooksByYearRange(1800, 2000, 2, Comparator.comparingInt(Book::getYear).reversed());
+        assertEquals(List.of("KU7K3MBQV9LUB", "KU7K3MBQV9LU7"), isbns(newest));
+
+        List<Book> byTitle = library.findBooksByYearRange(1800, 1950, 10, SortOrder.TITLE.comparator());
+        assertEquals(List.of("KU7K3MBQV9LU9", "KU7K3MBQV9LU0", "KU7K3MBQV9LU8"), isbns(byTitle));
+    }
+
+    @Test
+    @DisplayName("findBookByAuthor with a limit should return the first books of the author in the comparator order")
+    public void findBookByAuthorTopTest() {
+        assertEquals(List.of("KU7K3MBQV9LU6", "KU7K3MBQV9LU7"),
+                isbns(library.findBookByAuthor("Richard Bachman", 2, SortOrder.YEAR.comparator())));
+        assertTrue(library.findBookByAuthor("Stephen King", 2, SortOrder.YEAR.comparator()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findTopBooks should return the same books as the beginning of the fully sorted list")
+    public void findTopBooksTest() {
+        for (int limit = 1; limit <= 7; limit++) {
+            List<Book> sorted = library.getBooksSortedByTitleThenAuthorThenYear();
+            assertEquals(sorted.subList(0, Math.min(limit, sorted.size())),
+                    library.findTopBooks(limit, SortOrder.TITLE_THEN_AUTHOR_THEN_YEAR.comparator()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    @DisplayName("Top-K methods should throw IllegalArgumentException if the limit is not positive")
+    public void invalidLimitTest(int limit) {
+        Comparator<Book> comparator = SortOrder.YEAR.comparator();
+        assertThrows(IllegalArgumentException.class, () -> library.findBooksByYearRange(1800, 2000, limit, comparator));
+        assertThrows(IllegalArgumentException.class, () -> library.findBookByAuthor("Richard Bachman", limit, comparator));
+        assertThrows(IllegalArgumentException.class, () -> library.findTopBooks(limit, comparator));
+    }
+
+    @Test
+    @DisplayName("Top-K methods should throw IllegalArgumentException if the comparator is null")
+    public void nullComparatorTest() {
+        assertThrows(IllegalArgumentException.class, () -> library.findBooksByYearRange(1800, 2000, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> library.findBookByAuthor("Richard Bachman", 1, null));
+        assertThrows(IllegalArgumentException.class, () -> library.findTopBooks(1, null));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SortOrder.class)
+    @DisplayName("The first 50 books taken with a bounded heap should match the first 50 books of the full sorted result")
+    public void topKMatchesFullSortTest(SortOrder order) {
+        int limit = 50;
+        Library bigLibrary = createLibrary(10_000, 1000);
+        Comparator<Book> comparator = order.comparator();
+
+        List<Book> top = bigLibrary.findBooksByYearRange(1950, 1999, limit, comparator);
+        List<Book> sorted = new ArrayList<>(bigLibrary.findBooksByYearRange(1950, 1999));
+        sorted.sort(comparator);
+
+        assertEquals(isbns(sorted.subList(0, limit)), isbns(top));
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.anastasiiasmotritskaya.javacore.ooptest;
+
+import com.github.anastasiiasmotritskaya.javacore.exceptions.BookNotFoundException;
+import com.github.anastasiiasmotritskaya.javacore.exceptions.LibraryFileException;
+import com.github.anastasiiasmotritskaya.javacore.oop.*;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.assertBookMatches;
+import static com.github.anastasiiasmotritskaya.javacore.testutil.BookAndLibraryTestUtil.createLibrary;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("OOP")
+@Story("Memory-mapped catalogue testing")
+public class MappedCatalogTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("MappedCatalog should find every book saved to the indexed file")
+    public void findBookByISBNTest() {
+        Book book = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        book.borrow("Reader");
+        FictionBook fictionBook = new FictionBook("Wuthering Heights", "Emily Brontë", 1847, "KU7K3MBQV9LU8", "Novel");
+        TechnicalBook technicalBook = new TechnicalBook("Effective Java", "Joshua Bloch", 2018, "AB7K3MBQV9LU9",
+                "Java", DifficultyLevel.BEGINNER);
+
+        Map<String, Book> books = new HashMap<>();
+        books.put(book.getIsbn(), book);
+        books.put(fictionBook.getIsbn(), fictionBook);
+        books.put(technicalBook.getIsbn(), technicalBook);
+
+        Path path = tempDir.resolve("catalog.idx");
+        new Library(books).saveToIndexedBinaryFile(String.valueOf(path));
+
+        MappedCatalog catalog = new MappedCatalog(String.valueOf(path));
+
+        assertEquals(3, catalog.size());
+        Book found = catalog.findBookByISBN("KU7K3MBQV9LU6");
+        assertBookMatches(found, "Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        assertEquals(BookStatus.BORROWED, found.getStatus());
+        assertEquals("Reader", found.getCurrentBorrower());
+        assertEquals("Novel", assertInstanceOf(FictionBook.class, catalog.findBookByISBN("KU7K3MBQV9LU8")).getGenre());
+        assertEquals(DifficultyLevel.BEGINNER,
+                assertInstanceOf(TechnicalBook.class, catalog.findBookByISBN("AB7K3MBQV9LU9")).getDifficultyLevel());
+    }
+
+    @Test
+    @DisplayName("MappedCatalog should return the saved inventory number on every lookup")
+    public void findBookByISBNInventoryNumberTest() {
+        Book book = new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6");
+        Path path = tempDir.resolve("catalog.idx");
+        new Library(Map.of(book.getIsbn(), book)).saveToIndexedBinaryFile(String.valueOf(path));
+
+        MappedCatalog catalog = new MappedCatalog(String.valueOf(path));
+        Book first = catalog.findBookByISBN("KU7K3MBQV9LU6");
+        Book second = catalog.findBookByISBN("KU7K3MBQV9LU6");
+
+        assertNotSame(first, second);
+        assertEquals(book.getInventoryNumber(), first.getInventoryNumber());
+        assertEquals(first.getInventoryNumber(), second.getInventoryNumber());
+    }
+
+    @Test
+    @DisplayName("MappedCatalog should throw BookNotFoundException for the ISBN which is not in the file")
+    public void findBookByISBNNotFoundTest() {
+        Path path = tempDir.resolve("catalog.idx");
+        new Library(Map.of("KU7K3MBQV9LU6", new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6")))
+                .saveToIndexedBinaryFile(String.valueOf(path));
+
+        MappedCatalog catalog = new MappedCatalog(String.valueOf(path));
+
+        assertThrows(BookNotFoundException.class, () -> catalog.findBookByISBN("AA7K3MBQV9LU6"));
+        assertThrows(BookNotFoundException.class, () -> catalog.findBookByISBN("ZZ7K3MBQV9LU6"));
+        assertTrue(catalog.containsIsbn("KU7K3MBQV9LU6"));
+        assertFalse(catalog.containsIsbn("KU7K3MBQV9LU7"));
+    }
+
+    @Test
+    @DisplayName("MappedCatalog over an empty library should have no books")
+    public void emptyCatalogTest() {
+        Path path = tempDir.resolve("empty.idx");
+        new Library().saveToIndexedBinaryFile(String.valueOf(path));
+
+        MappedCatalog catalog = new MappedCatalog(String.valueOf(path));
+
+        assertEquals(0, catalog.size());
+        assertThrows(BookNotFoundException.class, () -> catalog.findBookByISBN("KU7K3MBQV9LU6"));
+    }
+
+    @Test
+    @DisplayName("MappedCatalog should throw LibraryFileException if the file is not an indexed catalogue")
+    public void wrongFormatTest() {
+        Path path = tempDir.resolve("library.bin");
+        new Library(Map.of("KU7K3MBQV9LU6", new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6")))
+                .saveToBinaryFile(String.valueOf(path));
+
+        assertThrows(LibraryFileException.class, () -> new MappedCatalog(String.valueOf(path)));
+    }
+
+    @Test
+    @DisplayName("MappedCatalog should throw LibraryFileException if the file is cut off")
+    public void truncatedFileTest() throws IOException {
+        Path path = tempDir.resolve("catalog.idx");
+        new Library(Map.of("KU7K3MBQV9LU6", new Book("Rage", "Richard Bachman", 1977, "KU7K3MBQV9LU6")))
+                .saveToIndexedBinaryFile(String.valueOf(path));
+        Files.write(path, Arrays.copyOf(Files.readAllBytes(path), 10));
+
+        assertThrows(LibraryFileException.class, () -> new MappedCatalog(String.valueOf(path)));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @DisplayName("MappedCatalog should throw IllegalArgumentException if the file path is null or empty")
+    public void nullOrEmptyPathTest(String filePath) {
+        assertThrows(IllegalArgumentException.class, () -> new MappedCatalog(filePath));
+    }
+
+    @Test
+    @DisplayName("The mapped indexed file should find the same books as the library loaded from a binary file")
+    public void loadVsMapTest() {
+        int size = 10_000;
+        Library library = createLibrary(size, 1000);
+        Path binaryPath = tempDir.resolve("library.bin");
+        Path indexedPath = tempDir.resolve("library.idx");
+        library.saveToBinaryFile(String.valueOf(binaryPath));
+        library.saveToIndexedBinaryFile(String.valueOf(indexedPath));
+
+        Library loaded = new Library();
+        loaded.loadFromBinaryFile(String.valueOf(binaryPath));
+        MappedCatalog catalog = new MappedCatalog(String.valueOf(indexedPath));
+
+        assertEquals(size, catalog.size());
+        for (int i = 0; i < size; i += 7) {
+            String isbn = String.format("KU%011d", i);
+            Book expected = loaded.findBookByISBN(isbn);
+            assertBookMatches(catalog.findBookByISBN(isbn),
+                    expected.getTitle(), expected.getAuthor(), expected.getYear(), isbn);
+        }
+        assertFalse(catalog.containsIsbn(String.format("KU%011d", size)));
+    }
+}
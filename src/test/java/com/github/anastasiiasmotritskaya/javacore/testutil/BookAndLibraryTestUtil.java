@@ -1,6 +1,12 @@
 package com.github.anastasiiasmotritskaya.javacore.testutil;
 
 import com.github.anastasiiasmotritskaya.javacore.oop.Book;
+import com.github.anastasiiasmotritskaya.javacore.oop.Library;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -24,4 +30,33 @@ public class BookAndLibraryTestUtil {
                 () -> assertEquals(isbn, book.getIsbn())
         );
     }
+
+    /**
+     * Создаёт библиотеку из size книг "Title i" с авторами "Author i % authorCount",
+     * годами издания от 1900 до 1999 и ISBN вида KU00000000000.
+     * Используется в тестах производительности и тестах на больших библиотеках.
+     */
+    public static Library createLibrary(int size, int authorCount) {
+        Library library = new Library();
+        for (int i = 0; i < size; i++) {
+            library.addBook(new Book("Title " + i, "Author " + i % authorCount, 1900 + i % 100, String.format("KU%011d", i)));
+        }
+        return library;
+    }
+
+    /**
+     * Возвращает ISBN книг в том же порядке, что и книги.
+     * Используется для проверки порядка книг в ответе.
+     */
+    public static List<String> isbns(List<Book> books) {
+        return books.stream().map(Book::getIsbn).toList();
+    }
+
+    /**
+     * Возвращает множество ISBN книг.
+     * Используется для проверки ответов, порядок которых не гарантирован.
+     */
+    public static Set<String> isbnSet(Collection<Book> books) {
+        return books.stream().map(Book::getIsbn).collect(Collectors.toSet());
+    }
 }
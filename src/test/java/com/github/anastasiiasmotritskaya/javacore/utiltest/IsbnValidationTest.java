@@ -0,0 +1,139 @@
+package com.github.anastasiiasmotritskaya.javacore.utiltest;
+
+import com.github.anastasiiasmotritskaya.javacore.util.BookValidator;
+import com.github.anastasiiasmotritskaya.javacore.util.IsbnNormalizer;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Java Core")
+@Feature("Utils")
+@Story("ISBN validation and normalization testing")
+public class IsbnValidationTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"KU7K3MBQV9LU6", "9780306406157", "  kU7K3MBQV9LU6  ", "\tKU7K3MBQV9LU6\n"})
+    @DisplayName("validateIsbn should accept 13 letters and digits with spaces around")
+    public void validateIsbnPositiveTest(String isbn) {
+        assertDoesNotThrow(() -> BookValidator.validateIsbn(isbn));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'   ', 'The International Standard Book Number field must not be empty. Enter the International Standard Book Number.'",
+            "' KU7K3MBQV9LU ', 'The International Standard Book Number was entered incorrectly (ISBN-13). You entered:  KU7K3MBQV9LU . Please enter the correct International Standard Book Number (13 symbols).'",
+            "' KU7K3-BQV9LU6', 'ISBN must contain only letters and digits. Got: KU7K3-BQV9LU6'",
+            "'KU7K3MBQV9LÜ6', 'ISBN must contain only letters and digits. Got: KU7K3MBQV9LÜ6'",
+    })
+    @DisplayName("validateIsbn should keep the messages of the regex version")
+    public void validateIsbnMessagesTest(String isbn, String expectedMessage) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> BookValidator.validateIsbn(isbn));
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"9780306406157", "9783161484100", "9780000000002", " 9781861972712 "})
+    @DisplayName("validateIsbn13CheckDigit should accept ISBN-13 with the correct check digit")
+    public void validateIsbn13CheckDigitPositiveTest(String isbn) {
+        assertDoesNotThrow(() -> BookValidator.validateIsbn13CheckDigit(isbn));
+    }
+
+    @Test
+    @DisplayName("validateIsbn13CheckDigit should throw IllegalArgumentException for a wrong check digit or letters")
+    public void validateIsbn13CheckDigitNegativeTest() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> BookValidator.validateIsbn13CheckDigit("9780306406158"));
+        assertEquals("ISBN-13 check digit is incorrect. Got: 9780306406158, expected check digit: 7", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class,
+                () -> BookValidator.validateIsbn13CheckDigit("KU7K3MBQV9LU6"));
+        assertEquals("ISBN-13 must contain only digits to have a check digit. Got: KU7K3MBQV9LU6", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0306406152, 9780306406157",
+            "0-306-40615-2, 9780306406157",
+            "080442957X, 9780804429573",
+            "0 8044 2957 x, 9780804429573",
+            "978-0-306-40615-7, 9780306406157",
+    })
+    @DisplayName("toIsbn13 should convert ISBN-10 to ISBN-13 and keep ISBN-13 as digits only")
+    public void toIsbn13Test(String isbn, String expected) {
+        assertEquals(expected, IsbnNormalizer.toIsbn13(isbn));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0306406153", "03064061", "030640615X2", "0-306-4O615-2", "X306406152", "9780306406158"})
+    @DisplayName("toIsbn13 should throw IllegalArgumentException for an invalid ISBN")
+    public void toIsbn13NegativeTest(String isbn) {
+        assertThrows(IllegalArgumentException.class, () -> IsbnNormalizer.toIsbn13(isbn));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @DisplayName("toIsbn13 should throw IllegalArgumentException if the ISBN is null or empty")
+    public void toIsbn13NullOrEmptyTest(String isbn) {
+        assertThrows(IllegalArgumentException.class, () -> IsbnNormalizer.toIsbn13(isbn));
+    }
+
+    @Test
+    @DisplayName("The char loop validation should accept and reject the same ISBNs as the previous regex validation")
+    public void validateIsbnMatchesRegexTest() {
+        String alphabet = "KU7K3MBQV9LUkuz0 -\tÜ٣";
+        Random random = new Random(7);
+        int accepted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder isbn = new StringBuilder();
+            int length = 11 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                isbn.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String value = isbn.toString();
+            boolean regexAccepts = accepts(() -> validateIsbnWithRegex(value));
+            assertEquals(regexAccepts, accepts(() -> BookValidator.validateIsbn(value)), value);
+            if (regexAccepts) {
+                accepted++;
+            }
+        }
+        assertTrue(accepted > 0);
+    }
+
+    /**
+     * Returns true if the validation passes and false if it throws IllegalArgumentException.
+     */
+    private static boolean accepts(Runnable validation) {
+        try {
+            validation.run();
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The previous implementation of BookValidator.validateIsbn, kept for comparison.
+     */
+    private static void validateIsbnWithRegex(String isbn) {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            throw new IllegalArgumentException("The International Standard Book Number field must not be empty.");
+        }
+        if (isbn.trim().length() != 13) {
+            throw new IllegalArgumentException("The International Standard Book Number was entered incorrectly (ISBN-13).");
+        }
+        if (!isbn.trim().matches("[A-Za-z0-9]{13}")) {
+            throw new IllegalArgumentException("ISBN must contain only letters and digits. Got: " + isbn.trim());
+        }
+    }
+}